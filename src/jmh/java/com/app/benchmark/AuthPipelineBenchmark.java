@@ -0,0 +1,151 @@
+package com.app.benchmark;
+
+import com.app.SpringSecurityAppApplication;
+import com.app.config.filter.JwtTokenValidator;
+import com.app.config.metrics.AuthMetrics;
+import com.app.services.AuthorityRegistry;
+import com.app.services.UserDetailService;
+import com.app.utils.JwtUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Caminos calientes de la autenticación con la aplicación real (perfil test: H2 en modo MySQL con el seed de RBAC)
+// - filter*: JwtTokenValidator completo (doFilter) con request/response de prueba, con el token en la cache
+//   de tokens verificados, sin cache (HMAC + parseo en cada llamada) y con un token mal formado
+// - parseAuthorities*: el claim "authorities" con AuthorityRegistry contra el parseo de Spring Security
+// - loadUserByUsername: la consulta de usuario y roles contra la base de datos embebida
+// metrics=false usa la implementación no-op de AuthMetrics, para ver el costo de la instrumentación
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthPipelineBenchmark {
+
+    private static final String USERNAME = "Samuel";
+    private static final String CLAIM = "ROLE_DEVELOPER,ROLE_INVITED,CREATE,READ,UPDATE,DELETE,REFACTOR";
+
+    @Param({"true", "false"})
+    public boolean metrics;
+
+    private ConfigurableApplicationContext context;
+
+    private JwtTokenValidator cachedFilter;
+    private JwtTokenValidator uncachedFilter;
+
+    private MockHttpServletRequest validRequest;
+    private MockHttpServletRequest malformedRequest;
+    private MockHttpServletResponse response;
+
+    private AuthorityRegistry authorityRegistry;
+    private UserDetailService userDetailService;
+
+    // El resto de la cadena: solo limpia el contexto para la siguiente invocación
+    private final FilterChain chain = (request, response) -> SecurityContextHolder.clearContext();
+
+    @Setup
+    public void setUp() {
+        this.context = new SpringApplicationBuilder(SpringSecurityAppApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "app.metrics.auth.enabled=" + this.metrics)
+                .run();
+
+        JwtUtils jwtUtils = this.context.getBean(JwtUtils.class);
+        AuthMetrics authMetrics = this.context.getBean(AuthMetrics.class);
+        this.authorityRegistry = this.context.getBean(AuthorityRegistry.class);
+        this.userDetailService = this.context.getBean(UserDetailService.class);
+
+        // Mismo JwtUtils pero sin la cache de tokens verificados
+        JwtUtils uncachedJwtUtils = this.context.getAutowireCapableBeanFactory().createBean(JwtUtils.class);
+        ReflectionTestUtils.setField(uncachedJwtUtils, "tokenCache", null);
+
+        this.cachedFilter = new JwtTokenValidator(jwtUtils, authMetrics);
+        this.uncachedFilter = new JwtTokenValidator(uncachedJwtUtils, authMetrics);
+
+        UserDetails user = this.userDetailService.loadUserByUsername(USERNAME);
+        String token = jwtUtils.createToken(new UsernamePasswordAuthenticationToken(
+                USERNAME, null, user.getAuthorities()));
+
+        this.validRequest = request("Bearer " + token);
+        this.malformedRequest = request("Bearer not-a-jwt");
+        this.response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/method/get");
+        request.setServletPath("/method/get");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        return request;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterCachedToken() throws ServletException, IOException {
+        this.cachedFilter.doFilter(this.validRequest, this.response, this.chain);
+        return this.response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterUncachedToken() throws ServletException, IOException {
+        this.uncachedFilter.doFilter(this.validRequest, this.response, this.chain);
+        return this.response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filterMalformedToken() throws ServletException, IOException {
+        this.cachedFilter.doFilter(this.malformedRequest, this.response, this.chain);
+        return this.response;
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> parseAuthorities() {
+        return this.authorityRegistry.parseClaim(CLAIM);
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> parseAuthoritiesBaseline() {
+        return AuthorityUtils.commaSeparatedStringToAuthorityList(CLAIM);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return this.userDetailService.loadUserByUsername(USERNAME);
+    }
+}
@@ -0,0 +1,107 @@
+package com.app.benchmark;
+
+import com.app.config.authorization.AuthorizationTable;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Decisiones de autorización por segundo con 10, 100 y 1000 reglas
+// "linear" es lo que arma authorizeHttpRequests con una lista de requestMatchers (se recorren en orden);
+// "table" es AuthorizationTable. Se mide la última regla (el peor caso de la lista) y un path sin regla (denyAll)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationTableBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int rules;
+
+    private AuthorizationManager<HttpServletRequest> linear;
+    private AuthorizationManager<RequestAuthorizationContext> table;
+
+    private Supplier<Authentication> authentication;
+
+    private MockHttpServletRequest lastRule;
+    private MockHttpServletRequest unmatched;
+
+    @Setup
+    public void setUp() {
+        AuthorizationManager<RequestAuthorizationContext> permitAll = (authentication, context) -> new AuthorizationDecision(true);
+        AuthorizationManager<RequestAuthorizationContext> denyAll = (authentication, context) -> new AuthorizationDecision(false);
+
+        RequestMatcherDelegatingAuthorizationManager.Builder linearBuilder = RequestMatcherDelegatingAuthorizationManager.builder();
+        AuthorizationTable.Builder<AuthorizationManager<RequestAuthorizationContext>> tableBuilder = AuthorizationTable.builder(denyAll);
+
+        // Mitad paths exactos y mitad prefijos "/**", alternando métodos, como en SecurityConfig
+        for (int i = 0; i < this.rules; i++) {
+            HttpMethod method = i % 2 == 0 ? HttpMethod.GET : HttpMethod.POST;
+            String pattern = i % 4 < 2 ? "/api/v1/resource" + i + "/items" : "/api/v1/resource" + i + "/admin/**";
+            linearBuilder.add(PathPatternRequestMatcher.withDefaults().matcher(method, pattern), permitAll);
+            tableBuilder.add(method, pattern, permitAll);
+        }
+        linearBuilder.add(request -> true, denyAll);
+
+        this.linear = linearBuilder.build();
+        this.table = AuthorizationTable.servlet(tableBuilder.build());
+
+        UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.authenticated("Samuel", null,
+                AuthorityUtils.commaSeparatedStringToAuthorityList("ROLE_DEVELOPER,READ"));
+        this.authentication = () -> token;
+
+        int last = this.rules - 1;
+        String lastPath = last % 4 < 2 ? "/api/v1/resource" + last + "/items" : "/api/v1/resource" + last + "/admin/users";
+        this.lastRule = request(last % 2 == 0 ? "GET" : "POST", lastPath);
+        this.unmatched = request("GET", "/api/v1/unknown/items");
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    @Benchmark
+    public AuthorizationDecision linearLastRule() {
+        return this.linear.check(this.authentication, this.lastRule);
+    }
+
+    @Benchmark
+    public AuthorizationDecision tableLastRule() {
+        return this.table.check(this.authentication, new RequestAuthorizationContext(this.lastRule));
+    }
+
+    @Benchmark
+    public AuthorizationDecision linearUnmatched() {
+        return this.linear.check(this.authentication, this.unmatched);
+    }
+
+    @Benchmark
+    public AuthorizationDecision tableUnmatched() {
+        return this.table.check(this.authentication, new RequestAuthorizationContext(this.unmatched));
+    }
+}
@@ -0,0 +1,36 @@
+package com.app.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+// Punto de entrada de los benchmarks JMH (perfil "benchmark" del pom.xml)
+// El primer argumento es una expresión regular con los benchmarks a ejecutar
+// El segundo, el archivo JSON donde se guardan los resultados (para comparar entre versiones)
+// El profiler "gc" agrega a cada resultado los bytes asignados por operación (gc.alloc.rate.norm)
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*";
+        String result = args.length > 1 ? args[1] : "target/jmh-result.json";
+
+        File resultFile = new File(result);
+        if (resultFile.getParentFile() != null) {
+            resultFile.getParentFile().mkdirs();
+        }
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build();
+
+        new Runner(options).run();
+    }
+}
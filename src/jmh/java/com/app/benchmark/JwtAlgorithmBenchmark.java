@@ -0,0 +1,99 @@
+package com.app.benchmark;
+
+import com.app.utils.EdDsaAlgorithm;
+import com.app.utils.PooledHmacAlgorithm;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Tokens por segundo al firmar y verificar con cada algoritmo que soporta SigningKeyStore
+// Los tokens tienen los mismos claims que JwtUtils.createToken
+// Sirve para elegir el tipo de llave según el presupuesto de CPU (firmar pesa en login, verificar en cada petición)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+
+    @Param({"HS256", "RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private Algorithm jwtAlgorithm;
+    private JWTVerifier verifier;
+    private String token;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        this.jwtAlgorithm = create(this.algorithm);
+        this.verifier = JWT.require(this.jwtAlgorithm).withIssuer(JwtUtilsBenchmark.USER_GENERATOR).build();
+        this.token = sign();
+    }
+
+    static Algorithm create(String algorithm) throws GeneralSecurityException {
+        return switch (algorithm) {
+            case "HS256" -> new PooledHmacAlgorithm(JwtUtilsBenchmark.PRIVATE_KEY);
+            case "RS256" -> {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+                KeyPair keyPair = generator.generateKeyPair();
+                yield Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate());
+            }
+            case "ES256" -> {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                KeyPair keyPair = generator.generateKeyPair();
+                yield Algorithm.ECDSA256((ECPublicKey) keyPair.getPublic(), (ECPrivateKey) keyPair.getPrivate());
+            }
+            case "EdDSA" -> {
+                KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+                yield new EdDsaAlgorithm(keyPair.getPublic(), keyPair.getPrivate());
+            }
+            default -> throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+        };
+    }
+
+    @Benchmark
+    public String sign() {
+        return JWT.create()
+                .withKeyId("benchmark")
+                .withIssuer(JwtUtilsBenchmark.USER_GENERATOR)
+                .withSubject("Samuel")
+                .withClaim("authorities", "ROLE_DEVELOPER,ROLE_INVITED,CREATE,READ,UPDATE,DELETE,REFACTOR")
+                .withIssuedAt(new Date())
+                .withExpiresAt(new Date(System.currentTimeMillis() + 1800000))
+                .withJWTId(UUID.randomUUID().toString())
+                .withNotBefore(new Date(System.currentTimeMillis()))
+                .sign(this.jwtAlgorithm);
+    }
+
+    @Benchmark
+    public DecodedJWT verify() {
+        return this.verifier.verify(JWT.decode(this.token));
+    }
+}
@@ -0,0 +1,93 @@
+package com.app.benchmark;
+
+import com.app.utils.JwtUtils;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Tokens por segundo al firmar y verificar con JwtUtils.
+// Los métodos "baseline" reproducen la implementación anterior, que construía
+// el Algorithm y el JWTVerifier en cada llamada, para comparar antes y después.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    static final String PRIVATE_KEY = "85f5e10431f69bc2a14046a13aabaefc660103b6de7a84f75c4b96181d03f0b5";
+    static final String USER_GENERATOR = "AUTH0JWT-BACKEND";
+
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        this.jwtUtils = newJwtUtils();
+        this.authentication = new UsernamePasswordAuthenticationToken("Samuel", null,
+                AuthorityUtils.commaSeparatedStringToAuthorityList("ROLE_DEVELOPER,ROLE_INVITED,CREATE,READ,UPDATE,DELETE,REFACTOR"));
+        this.token = this.jwtUtils.createToken(this.authentication);
+    }
+
+    static JwtUtils newJwtUtils() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "privateKey", PRIVATE_KEY);
+        ReflectionTestUtils.setField(jwtUtils, "userGenerator", USER_GENERATOR);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    @Benchmark
+    public String sign() {
+        return this.jwtUtils.createToken(this.authentication);
+    }
+
+    @Benchmark
+    public DecodedJWT verify() {
+        return this.jwtUtils.validateToken(this.token);
+    }
+
+    @Benchmark
+    public String signBaseline() {
+        Algorithm algorithm = Algorithm.HMAC256(PRIVATE_KEY);
+        return JWT.create()
+                .withIssuer(USER_GENERATOR)
+                .withSubject("Samuel")
+                .withClaim("authorities", "ROLE_DEVELOPER,ROLE_INVITED,CREATE,READ,UPDATE,DELETE,REFACTOR")
+                .withIssuedAt(new Date())
+                .withExpiresAt(new Date(System.currentTimeMillis() + 1800000))
+                .withJWTId(UUID.randomUUID().toString())
+                .withNotBefore(new Date(System.currentTimeMillis()))
+                .sign(algorithm);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyBaseline() {
+        Algorithm algorithm = Algorithm.HMAC256(PRIVATE_KEY);
+        JWTVerifier verifier = JWT.require(algorithm)
+                .withIssuer(USER_GENERATOR)
+                .build();
+        return verifier.verify(this.token);
+    }
+}
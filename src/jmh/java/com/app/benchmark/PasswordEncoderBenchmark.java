@@ -0,0 +1,66 @@
+package com.app.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// Tiempo de verificar una contraseña (lo que cuesta un login) con distintos algoritmos y parámetros
+// Sirve para elegir security.password.bcrypt.target-hash-time según el presupuesto de CPU
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({
+            "bcrypt-10", "bcrypt-11", "bcrypt-12", "bcrypt-13",
+            "pbkdf2-310000", "pbkdf2-600000",
+            "argon2-16m-2", "argon2-64m-3"
+    })
+    public String encoder;
+
+    private PasswordEncoder passwordEncoder;
+
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        this.passwordEncoder = create(this.encoder);
+        this.hash = this.passwordEncoder.encode("1234");
+    }
+
+    // "<algoritmo>-<parámetro>[-<parámetro>]"
+    static PasswordEncoder create(String encoder) {
+        String[] parts = encoder.split("-");
+        return switch (parts[0]) {
+            case "bcrypt" -> new BCryptPasswordEncoder(Integer.parseInt(parts[1]));
+            case "pbkdf2" -> new Pbkdf2PasswordEncoder("", 16, Integer.parseInt(parts[1]),
+                    Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+            // memoria en MiB (en KiB para el encoder) y número de iteraciones
+            case "argon2" -> new Argon2PasswordEncoder(16, 32, 1,
+                    Integer.parseInt(parts[1].replace("m", "")) * 1024, Integer.parseInt(parts[2]));
+            default -> throw new IllegalArgumentException("Unknown encoder " + encoder);
+        };
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return this.passwordEncoder.matches("1234", this.hash);
+    }
+}
@@ -0,0 +1,182 @@
+package com.app.benchmark;
+
+import com.app.entities.PermissionEntity;
+import com.app.entities.RoleEntity;
+import com.app.entities.RoleEnum;
+import com.app.entities.UserEntity;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Insertar N usuarios con dos roles cada uno, en una transacción, sobre H2 en modo MySQL
+// - identity: las mismas tablas con ids IDENTITY (como estaban antes): un INSERT por fila
+// - pooled: las entidades de la aplicación, con ids desde "id_generators" y lotes JDBC
+// Al final de cada iteración se imprime cuántas sentencias preparó Hibernate
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UserInsertBenchmark {
+
+    // Mismo hash que usa el seeding, el costo de BCrypt no es parte de esta medición
+    private static final String PASSWORD = "$2a$10$eTJOArN7.FlqkFsBKCOcYOWZsh9.FYtsPThL9K3K7kpzDQqAkOT92";
+
+    @Param({"identity", "pooled"})
+    public String ids;
+
+    @Param({"1000", "10000"})
+    public int users;
+
+    private SessionFactory sessionFactory;
+
+    private final List<Long> roleIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.sessionFactory = new Configuration()
+                .addAnnotatedClass(UserEntity.class)
+                .addAnnotatedClass(RoleEntity.class)
+                .addAnnotatedClass(PermissionEntity.class)
+                .addAnnotatedClass(IdentityUser.class)
+                .addAnnotatedClass(IdentityRole.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:insert-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                // Misma configuración que application.properties
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "100")
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .setProperty(AvailableSettings.GENERATE_STATISTICS, "true")
+                .buildSessionFactory();
+
+        this.sessionFactory.inTransaction(session -> {
+            if (this.ids.equals("identity")) {
+                for (String name : List.of("ADMIN", "USER")) {
+                    IdentityRole role = new IdentityRole();
+                    role.name = name;
+                    session.persist(role);
+                    this.roleIds.add(role.id);
+                }
+            } else {
+                for (RoleEnum roleEnum : List.of(RoleEnum.ADMIN, RoleEnum.USER)) {
+                    RoleEntity role = RoleEntity.builder().roleEnum(roleEnum).permissionList(Set.of()).build();
+                    session.persist(role);
+                    this.roleIds.add(role.getId());
+                }
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.sessionFactory.close();
+    }
+
+    // Cada iteración parte de las tablas de usuarios vacías
+    @Setup(Level.Iteration)
+    public void clean() {
+        this.sessionFactory.inTransaction(session -> {
+            String prefix = this.ids.equals("identity") ? "identity_" : "";
+            session.createNativeMutationQuery("delete from " + prefix + "users_roles").executeUpdate();
+            session.createNativeMutationQuery("delete from " + prefix + "users").executeUpdate();
+        });
+        this.sessionFactory.getStatistics().clear();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        Statistics statistics = this.sessionFactory.getStatistics();
+        System.out.printf("%n%s ids, %d users: %d prepared statements, %d entity inserts%n",
+                this.ids, this.users, statistics.getPrepareStatementCount(), statistics.getEntityInsertCount());
+    }
+
+    @Benchmark
+    public void insert() {
+        this.sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < this.users; i++) {
+                session.persist(this.ids.equals("identity") ? identityUser(session, i) : pooledUser(session, i));
+            }
+        });
+    }
+
+    private UserEntity pooledUser(Session session, int i) {
+        Set<RoleEntity> roles = new HashSet<>();
+        this.roleIds.forEach(roleId -> roles.add(session.getReference(RoleEntity.class, roleId)));
+        return UserEntity.builder()
+                .username("user" + i)
+                .password(PASSWORD)
+                .roles(roles)
+                .isEnabled(true)
+                .accountNoLocked(true)
+                .accountNoExpired(true)
+                .credentialNoExpired(true)
+                .build();
+    }
+
+    private IdentityUser identityUser(Session session, int i) {
+        IdentityUser user = new IdentityUser();
+        user.username = "user" + i;
+        user.password = PASSWORD;
+        this.roleIds.forEach(roleId -> user.roles.add(session.getReference(IdentityRole.class, roleId)));
+        return user;
+    }
+
+    // Las tablas con ids IDENTITY, como eran antes de pasar a "id_generators"
+    @Entity
+    @Table(name = "identity_users")
+    public static class IdentityUser {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        String username;
+
+        String password;
+
+        @ManyToMany
+        @JoinTable(name = "identity_users_roles")
+        Set<IdentityRole> roles = new HashSet<>();
+    }
+
+    @Entity
+    @Table(name = "identity_roles")
+    public static class IdentityRole {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        String name;
+    }
+}
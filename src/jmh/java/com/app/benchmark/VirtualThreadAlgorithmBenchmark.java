@@ -0,0 +1,153 @@
+package com.app.benchmark;
+
+import com.app.config.filter.VerifiedTokenCache;
+import com.app.utils.EdDsaAlgorithm;
+import com.app.utils.PooledHmacAlgorithm;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureGenerationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Verificaciones por segundo cuando cada verificación corre en un hilo nuevo, como cada petición con virtual threads
+// - "virtual": un virtual thread por verificación (newVirtualThreadPerTaskExecutor, igual que Tomcat con vthreads)
+// - "platform": un pool fijo de hilos de plataforma que se reutilizan
+// Estrategias:
+// - "HMAC256": Algorithm.HMAC256 de java-jwt (Mac nuevo en cada verificación)
+// - "threadLocal": la implementación anterior, un Algorithm por hilo en un ThreadLocal
+// - "pooled" y "EdDSA": PooledHmacAlgorithm y EdDsaAlgorithm, con sus instancias en un InstancePool
+// Con "virtual", "threadLocal" paga la inicialización del Mac y sus buffers en cada verificación
+// Cada verificación incluye la llave de VerifiedTokenCache (su MessageDigest también sale de un pool)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadAlgorithmBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"virtual", "platform"})
+    public String threads;
+
+    @Param({"HMAC256", "threadLocal", "pooled", "EdDSA"})
+    public String strategy;
+
+    private ExecutorService executor;
+    private JWTVerifier verifier;
+    private VerifiedTokenCache tokenCache;
+    private String token;
+    private List<Callable<DecodedJWT>> tasks;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        this.executor = "virtual".equals(this.threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+        Algorithm algorithm = switch (this.strategy) {
+            case "HMAC256" -> Algorithm.HMAC256(JwtUtilsBenchmark.PRIVATE_KEY);
+            case "threadLocal" -> new ThreadLocalAlgorithm(() -> new PooledHmacAlgorithm(JwtUtilsBenchmark.PRIVATE_KEY));
+            case "pooled" -> new PooledHmacAlgorithm(JwtUtilsBenchmark.PRIVATE_KEY);
+            case "EdDSA" -> {
+                KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+                yield new EdDsaAlgorithm(keyPair.getPublic(), keyPair.getPrivate());
+            }
+            default -> throw new IllegalArgumentException("Unknown strategy " + this.strategy);
+        };
+        this.verifier = JWT.require(algorithm).withIssuer(JwtUtilsBenchmark.USER_GENERATOR).build();
+        // Sin entradas: solo se mide el cálculo de la llave, que corre en cada petición
+        this.tokenCache = new VerifiedTokenCache(0, new SimpleMeterRegistry());
+        this.token = JWT.create()
+                .withIssuer(JwtUtilsBenchmark.USER_GENERATOR)
+                .withSubject("Samuel")
+                .withClaim("authorities", "ROLE_DEVELOPER,ROLE_INVITED,CREATE,READ,UPDATE,DELETE,REFACTOR")
+                .withIssuedAt(new Date())
+                .withExpiresAt(new Date(System.currentTimeMillis() + 1800000))
+                .withJWTId(UUID.randomUUID().toString())
+                .sign(algorithm);
+
+        this.tasks = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            this.tasks.add(() -> {
+                this.tokenCache.get(this.token);
+                return this.verifier.verify(JWT.decode(this.token));
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int verify() throws InterruptedException, ExecutionException {
+        int verified = 0;
+        for (Future<DecodedJWT> future : this.executor.invokeAll(this.tasks)) {
+            if (future.get() != null) {
+                verified++;
+            }
+        }
+        return verified;
+    }
+
+    // Reproduce la implementación anterior: cada hilo crea e inicializa su propio Algorithm
+    private static final class ThreadLocalAlgorithm extends Algorithm {
+
+        private final ThreadLocal<Algorithm> delegate;
+
+        private ThreadLocalAlgorithm(Supplier<Algorithm> factory) {
+            super("HS256", "HmacSHA256");
+            this.delegate = ThreadLocal.withInitial(factory);
+        }
+
+        @Override
+        public void verify(DecodedJWT jwt) throws SignatureVerificationException {
+            this.delegate.get().verify(jwt);
+        }
+
+        @Override
+        public byte[] sign(byte[] headerBytes, byte[] payloadBytes) throws SignatureGenerationException {
+            return this.delegate.get().sign(headerBytes, payloadBytes);
+        }
+
+        @Override
+        @Deprecated
+        public byte[] sign(byte[] contentBytes) throws SignatureGenerationException {
+            return this.delegate.get().sign(contentBytes);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.app.loadtest;
+
+import java.util.Arrays;
+
+// Endpoints que ejercita el harness, con el nombre que se usa en --mix y en el reporte
+public enum Endpoint {
+
+    LOGIN("login", "POST", "/auth/log-in"),
+    SIGN_UP("sign-up", "POST", "/auth/sign-up"),
+    GET("get", "GET", "/method/get"),
+    POST("post", "POST", "/method/post"),
+    PATCH("patch", "PATCH", "/method/patch");
+
+    private final String key;
+    private final String method;
+    private final String path;
+
+    Endpoint(String key, String method, String path) {
+        this.key = key;
+        this.method = method;
+        this.path = path;
+    }
+
+    public static Endpoint of(String key) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint " + key));
+    }
+
+    public String method() {
+        return this.method;
+    }
+
+    public String path() {
+        return this.path;
+    }
+
+    @Override
+    public String toString() {
+        return this.method + " " + this.path;
+    }
+}
@@ -0,0 +1,65 @@
+package com.app.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencias (HdrHistogram, en microsegundos) y contadores de un endpoint durante una fase
+final class EndpointStats {
+
+    // Hasta un minuto con 3 dígitos significativos
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final LongAdder errors = new LongAdder();
+
+    // Open loop: peticiones que no se enviaron porque ya había max-in-flight pendientes
+    private final LongAdder dropped = new LongAdder();
+
+    void record(long latencyNanos, boolean success) {
+        this.latencies.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (!success) {
+            this.errors.increment();
+        }
+    }
+
+    void drop() {
+        this.dropped.increment();
+    }
+
+    long count() {
+        return this.latencies.getTotalCount();
+    }
+
+    static String header() {
+        return String.format("%-20s %9s %8s %8s %10s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    String row(Endpoint endpoint, double seconds) {
+        return String.format("%-20s %9d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                endpoint, count(), this.errors.sum(), this.dropped.sum(), count() / seconds,
+                millis(this.latencies.getValueAtPercentile(50)),
+                millis(this.latencies.getValueAtPercentile(90)),
+                millis(this.latencies.getValueAtPercentile(99)),
+                millis(this.latencies.getValueAtPercentile(99.9)),
+                millis(this.latencies.getMaxValue()));
+    }
+
+    // Distribución completa en el formato de HdrHistogram (se puede graficar con HistogramLogAnalyzer)
+    void writeDistribution(Path file) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(file.toFile())) {
+            this.latencies.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,203 @@
+package com.app.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Genera la carga contra la aplicación levantada por LoadTestRunner.
+ * - Closed loop: "concurrency" clientes; cada uno envía, espera la respuesta y envía la siguiente.
+ *   El throughput lo fija el servidor: si se pone lento, llegan menos peticiones
+ * - Open loop: llegadas a un ritmo fijo ("rate" por segundo). La latencia se mide desde el momento en que
+ *   la petición debía salir, no desde que salió: así un servidor lento no esconde su cola
+ *   (coordinated omission)
+ * Cada petición elige su endpoint al azar según los pesos de --mix.
+ */
+final class LoadGenerator {
+
+    private static final String PASSWORD = UserSeeder.PASSWORD;
+
+    // Tokens de acceso que se reparten las peticiones a /method/*
+    private static final int TOKENS = 64;
+
+    private final LoadTestOptions options;
+
+    private final URI baseUri;
+
+    private final HttpClient client;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+
+    private final List<String> tokens = new ArrayList<>();
+
+    private final AtomicLong signUps = new AtomicLong();
+
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    LoadGenerator(LoadTestOptions options, int port) {
+        this.options = options;
+        this.baseUri = URI.create("http://localhost:" + port);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        this.endpoints = options.mix().keySet().toArray(Endpoint[]::new);
+        this.cumulativeWeights = new int[this.endpoints.length];
+        int total = 0;
+        for (int i = 0; i < this.endpoints.length; i++) {
+            total += options.mix().get(this.endpoints[i]);
+            this.cumulativeWeights[i] = total;
+        }
+    }
+
+    // Inicia sesión con algunos usuarios para tener tokens para /method/*
+    void prepareTokens() throws IOException, InterruptedException {
+        int count = Math.min(TOKENS, this.options.users());
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> response = this.client.send(loginRequest(UserSeeder.username(i)), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login of " + UserSeeder.username(i) + " failed with status " + response.statusCode());
+            }
+            JsonNode body = this.objectMapper.readTree(response.body());
+            this.tokens.add(body.get("jwt").asText());
+        }
+    }
+
+    // Ejecuta una fase completa y retorna las estadísticas de cada endpoint
+    Map<Endpoint, EndpointStats> run(Duration duration) throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : this.endpoints) {
+            stats.put(endpoint, new EndpointStats());
+        }
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        if (this.options.model() == LoadTestOptions.Model.CLOSED) {
+            runClosed(stats, deadline);
+        } else {
+            runOpen(stats, deadline);
+        }
+        return stats;
+    }
+
+    private void runClosed(Map<Endpoint, EndpointStats> stats, long deadline) throws InterruptedException {
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < this.options.concurrency(); i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() - deadline < 0) {
+                        Endpoint endpoint = nextEndpoint();
+                        long start = System.nanoTime();
+                        boolean success = send(endpoint);
+                        stats.get(endpoint).record(System.nanoTime() - start, success);
+                    }
+                });
+            }
+        }
+    }
+
+    private void runOpen(Map<Endpoint, EndpointStats> stats, long deadline) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / this.options.rate();
+        Semaphore inFlight = new Semaphore(this.options.maxInFlight());
+
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            long intended = System.nanoTime();
+            while (intended - deadline < 0) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Endpoint endpoint = nextEndpoint();
+                if (!inFlight.tryAcquire()) {
+                    stats.get(endpoint).drop();
+                } else {
+                    long scheduledAt = intended;
+                    senders.submit(() -> {
+                        try {
+                            boolean success = send(endpoint);
+                            stats.get(endpoint).record(System.nanoTime() - scheduledAt, success);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                intended += intervalNanos;
+            }
+        }
+    }
+
+    private Endpoint nextEndpoint() {
+        int value = ThreadLocalRandom.current().nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+        for (int i = 0; i < this.cumulativeWeights.length; i++) {
+            if (value < this.cumulativeWeights[i]) {
+                return this.endpoints[i];
+            }
+        }
+        return this.endpoints[this.endpoints.length - 1];
+    }
+
+    // true si la respuesta fue 2xx
+    private boolean send(Endpoint endpoint) {
+        try {
+            HttpResponse<Void> response = this.client.send(request(endpoint), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (endpoint) {
+            case LOGIN -> loginRequest(UserSeeder.username(random.nextInt(this.options.users())));
+            case SIGN_UP -> jsonRequest(endpoint, """
+                    {"username":"load-%s-%d","password":"%s","roleRequest":{"roleListName":["USER"]}}"""
+                    .formatted(this.runId, this.signUps.incrementAndGet(), PASSWORD), null);
+            case GET, POST, PATCH -> jsonRequest(endpoint, null, this.tokens.get(random.nextInt(this.tokens.size())));
+        };
+    }
+
+    private HttpRequest loginRequest(String username) {
+        return jsonRequest(Endpoint.LOGIN, """
+                {"username":"%s","password":"%s"}""".formatted(username, PASSWORD), null);
+    }
+
+    private HttpRequest jsonRequest(Endpoint endpoint, String body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(this.baseUri.resolve(endpoint.path()))
+                .timeout(Duration.ofSeconds(30))
+                .method(endpoint.method(), body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.app.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * Opciones del harness, como argumentos "--nombre=valor" (el perfil Maven loadtest las arma desde loadtest.*)
+ * - users: usuarios que se insertan antes de la prueba (user0 ... userN-1, todos con la contraseña "1234")
+ * - model: closed (concurrency clientes, cada uno espera su respuesta antes de enviar la siguiente)
+ *          u open (rate peticiones por segundo a intervalos fijos, sin importar cuánto tarden las respuestas)
+ * - mix: pesos de cada endpoint, por ejemplo login:20,sign-up:5,get:50,post:15,patch:10
+ * - warmup / duration: la fase de calentamiento no entra en el reporte
+ * - max-in-flight: en open loop, peticiones pendientes a partir de las cuales se descartan las nuevas
+ * - histograms: directorio donde se guarda la distribución completa de cada endpoint (vacío: no se guarda)
+ * - profiles: perfiles de Spring de la aplicación, por ejemplo loadtest,loadtest-mysql,prod para medir
+ *             contra MySQL con la configuración de producción del pool y del driver
+ */
+public record LoadTestOptions(int users,
+                              Model model,
+                              int concurrency,
+                              int rate,
+                              int maxInFlight,
+                              Map<Endpoint, Integer> mix,
+                              Duration warmup,
+                              Duration duration,
+                              String histograms,
+                              String[] profiles) {
+
+    public enum Model {
+        CLOSED, OPEN
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int equals = arg.indexOf('=');
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        return new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                Model.valueOf(values.getOrDefault("model", "closed").toUpperCase(Locale.ROOT)),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                parseMix(values.getOrDefault("mix", "login:20,sign-up:5,get:50,post:15,patch:10")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                values.getOrDefault("histograms", ""),
+                values.getOrDefault("profiles", "loadtest").split(","));
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.of(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one endpoint");
+        }
+        return weights;
+    }
+}
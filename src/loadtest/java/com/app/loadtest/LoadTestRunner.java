@@ -0,0 +1,73 @@
+package com.app.loadtest;
+
+import com.app.SpringSecurityAppApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * Prueba de carga local, sin servicios externos (perfil Maven loadtest):
+ *   ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.users=5000 -Dloadtest.model=open -Dloadtest.rate=300
+ * 1. Levanta la aplicación con el perfil loadtest (H2 en memoria, Tomcat en un puerto libre)
+ * 2. Inserta los usuarios con los repositorios de la aplicación
+ * 3. Calienta el servidor (warmup) y después mide durante "duration"
+ * 4. Imprime throughput y percentiles de latencia por endpoint (ver LoadTestOptions para las opciones)
+ * Con --profiles=loadtest,loadtest-mysql[,prod] la misma prueba corre contra un MySQL local
+ * Cliente y servidor comparten la máquina: para dimensionar instancias, comparar corridas en el mismo equipo
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringSecurityAppApplication.class)
+                .profiles(options.profiles())
+                .run()) {
+
+            long seedStart = System.nanoTime();
+            UserSeeder.seed(context, options.users());
+            System.out.printf("Seeded %d users in %d ms%n", options.users(), (System.nanoTime() - seedStart) / 1_000_000);
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LoadGenerator generator = new LoadGenerator(options, port);
+            generator.prepareTokens();
+
+            System.out.printf("Warming up for %s (%s loop)%n", options.warmup(), options.model());
+            generator.run(options.warmup());
+
+            System.out.printf("Measuring for %s (%s loop, %s)%n", options.duration(), options.model(),
+                    options.model() == LoadTestOptions.Model.CLOSED
+                            ? options.concurrency() + " clients"
+                            : options.rate() + " req/s");
+            Map<Endpoint, EndpointStats> stats = generator.run(options.duration());
+
+            report(options, stats);
+        }
+    }
+
+    private static void report(LoadTestOptions options, Map<Endpoint, EndpointStats> stats) throws IOException {
+        double seconds = options.duration().toNanos() / 1e9;
+        long total = 0;
+
+        System.out.println();
+        System.out.println(EndpointStats.header());
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            System.out.println(entry.getValue().row(entry.getKey(), seconds));
+            total += entry.getValue().count();
+        }
+        System.out.printf("%ntotal: %d requests, %.1f req/s%n", total, total / seconds);
+
+        if (!options.histograms().isBlank()) {
+            Path directory = Files.createDirectories(Path.of(options.histograms()));
+            for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+                entry.getValue().writeDistribution(directory.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm"));
+            }
+            System.out.println("Latency distributions written to " + directory.toAbsolutePath());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.app.loadtest;
+
+import com.app.entities.RoleEntity;
+import com.app.entities.UserEntity;
+import com.app.repositories.RoleEntityRepository;
+import com.app.repositories.UserEntityRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Inserta los usuarios de la prueba con los repositorios de la aplicación, en lotes de CHUNK_SIZE por transacción
+// Todos tienen el rol DEVELOPER (pasa las reglas de /method/get, /method/post y /method/patch)
+// La contraseña se hashea una sola vez: cada login sí paga su BCrypt completo, igual que en producción
+final class UserSeeder {
+
+    static final String PASSWORD = "1234";
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private UserSeeder() {
+    }
+
+    static String username(int index) {
+        return "user" + index;
+    }
+
+    static void seed(ApplicationContext context, int users) {
+        UserEntityRepository userRepository = context.getBean(UserEntityRepository.class);
+        RoleEntityRepository roleRepository = context.getBean(RoleEntityRepository.class);
+        EntityManager entityManager = context.getBean(EntityManager.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        Long developerRoleId = roleRepository.findRoleEntitiesByRoleEnumIn(List.of("DEVELOPER")).get(0).getId();
+
+        for (int start = 0; start < users; start += CHUNK_SIZE) {
+            int end = Math.min(users, start + CHUNK_SIZE);
+            int from = start;
+            transactionTemplate.executeWithoutResult(status -> {
+                // getReference no consulta la base de datos: basta el id para la tabla users_roles
+                RoleEntity developer = entityManager.getReference(RoleEntity.class, developerRoleId);
+                List<UserEntity> chunk = new ArrayList<>(end - from);
+                for (int i = from; i < end; i++) {
+                    chunk.add(UserEntity.builder()
+                            .username(username(i))
+                            .password(hash)
+                            .roles(Set.of(developer))
+                            .isEnabled(true)
+                            .accountNoLocked(true)
+                            .accountNoExpired(true)
+                            .credentialNoExpired(true)
+                            .build());
+                }
+                userRepository.saveAll(chunk);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+}
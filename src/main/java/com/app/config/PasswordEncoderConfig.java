@@ -0,0 +1,56 @@
+package com.app.config;
+
+import com.app.config.password.BCryptCostCalibrator;
+import com.app.config.password.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Configuración del PasswordEncoder de la aplicación
+@Configuration
+public class PasswordEncoderConfig {
+
+    // Id del algoritmo con el que se generan los hashes nuevos ("{bcrypt}$2a$12$...")
+    public static final String ENCODING_ID = "bcrypt";
+
+    // Define el PasswordEncoder (en este caso, BCrypt)
+    // Se usa para encriptar y comparar contraseñas de manera segura
+    // - Es un DelegatingPasswordEncoder: cada hash lleva el id de su algoritmo, así se puede cambiar
+    //   el algoritmo o el costo sin invalidar los hashes viejos
+    // - Los hashes sin prefijo (los que ya están en la base de datos) se leen como BCrypt
+    // - El costo de BCrypt se calibra al arrancar para acercarse al tiempo objetivo en este hardware,
+    //   salvo que se fije con security.password.bcrypt.strength
+    // - El hashing corre en un pool propio y acotado, para no ocupar los hilos del servidor
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt.strength:0}") int strength,
+                                           @Value("${security.password.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${security.password.bcrypt.target-hash-time:100ms}") Duration targetHashTime,
+                                           @Value("${security.password.hashing.threads:0}") int threads,
+                                           @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${security.password.hashing.max-wait:2s}") Duration maxWait,
+                                           MeterRegistry meterRegistry) {
+        // 0 = calibrar al arrancar
+        int bcryptStrength = strength > 0
+                ? strength
+                : BCryptCostCalibrator.calibrate(targetHashTime, minStrength, BCryptCostCalibrator.MAX_STRENGTH);
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(ENCODING_ID, Map.of(
+                ENCODING_ID, bcrypt,
+                "pbkdf2@SpringSecurity_v5_8", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // 0 hilos = uno por núcleo
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, poolSize, queueCapacity, maxWait, meterRegistry);
+    }
+}
@@ -1,28 +1,44 @@
 package com.app.config;
 
+import com.app.config.authorization.AuthorityBitsAuthorizationManager;
+import com.app.config.authorization.AuthorizationTable;
 import com.app.config.filter.JwtTokenValidator;
+import com.app.config.filter.LoginRateLimitFilter;
+import com.app.config.filter.LoginRateLimiter;
+import com.app.config.metrics.AuthMetrics;
+import com.app.config.password.HashingRejectedEntryPoint;
+import com.app.config.password.PasswordHashingRejectedException;
+import com.app.services.AuthorityRegistry;
+import com.app.services.UserDetailsCache;
 import com.app.utils.JwtUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.config.Customizer;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 import java.util.ArrayList;
@@ -31,11 +47,24 @@ import java.util.List;
 @Configuration // Marca esta clase como una clase de configuración de Spring
 @EnableWebSecurity // Activa la seguridad web en la aplicación
 @EnableMethodSecurity // Permite usar anotaciones como @PreAuthorize o @Secured para proteger métodos
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // En modo WebFlux se usa ReactiveSecurityConfig
 public class SecurityConfig {
 
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private AuthorityRegistry authorityRegistry;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
     // Configura la cadena de filtros de seguridad (security filter chain)
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
@@ -60,25 +89,50 @@ public class SecurityConfig {
                 // Desactiva CSRF (protección contra ataques Cross-Site Request Forgery)
                 .csrf(csrf -> csrf.disable())
                 // Usa autenticación HTTP básica (usuario y contraseña en el encabezado Authorization)
-                .httpBasic(Customizer.withDefaults())
+                // Con el pool de hashing saturado responde 503 con Retry-After en vez de 500
+                .httpBasic(basic -> basic.authenticationEntryPoint(new HashingRejectedEntryPoint(objectMapper)))
                 // Define que la aplicación no mantendrá sesiones de usuario (stateless)
                 // Útil para APIs que usan tokens como JWT
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authorizeHttpRequests(http -> {
-                    // Configurar los endpoints publicos
+                // Todas las reglas se resuelven con una sola búsqueda en la tabla (ver authorizationTable)
+                .authorizeHttpRequests(http -> http.anyRequest().access(AuthorizationTable.servlet(authorizationTable())))
+                // Primero el límite de intentos de login, antes de cualquier autenticación
+                .addFilterBefore(new LoginRateLimitFilter(loginRateLimiter, objectMapper), BasicAuthenticationFilter.class)
+                .addFilterBefore(new JwtTokenValidator(jwtUtils, authMetrics), BasicAuthenticationFilter.class)
+                .build();
+    }
 
-                    // Todos los endpoints que tienen /auth deben ser publicos
-                    http.requestMatchers(HttpMethod.POST, "/auth/**").permitAll();
+    // Reglas de autorización, en orden: gana la primera que coincide y lo que no coincide con ninguna se niega
+    // Se indexan por método y path (AuthorizationTable), así agregar reglas no encarece cada petición
+    private AuthorizationTable<AuthorizationManager<RequestAuthorizationContext>> authorizationTable() {
+        AuthorizationManager<RequestAuthorizationContext> permitAll = (authentication, context) -> new AuthorizationDecision(true);
+        AuthorizationManager<RequestAuthorizationContext> denyAll = (authentication, context) -> new AuthorizationDecision(false);
 
-                    // Configurar endpoints privados
-                    http.requestMatchers(HttpMethod.POST, "/method/post").hasAnyRole("ADMIN", "DEVELOPER");
+        return AuthorizationTable.builder(denyAll)
+                // Configurar los endpoints publicos
 
-                    http.requestMatchers(HttpMethod.PATCH, "/method/patch").hasAuthority("REFACTOR");
+                // El alta masiva de usuarios es solo para administradores
+                .add(HttpMethod.POST, "/auth/sign-up/batch", AuthorityBitsAuthorizationManager.hasRole(authorityRegistry, "ADMIN"))
 
-                    http.requestMatchers(HttpMethod.GET, "method/get").hasAuthority("READ");
-                    http.anyRequest().denyAll();
-                })
-                .addFilterBefore(new JwtTokenValidator(jwtUtils), BasicAuthenticationFilter.class)
+                // Logout revoca el token de la petición, así que necesita uno
+                .add(HttpMethod.POST, "/auth/logout", AuthenticatedAuthorizationManager.authenticated())
+
+                // Todos los demás endpoints que tienen /auth deben ser publicos
+                .add(HttpMethod.POST, "/auth/**", permitAll)
+
+                // Llaves públicas de firma de los tokens
+                .add(HttpMethod.GET, "/.well-known/jwks.json", permitAll)
+
+                // Configurar endpoints privados
+                // Las reglas se evalúan con un AND sobre la máscara de bits de los authorities del token
+                .add(HttpMethod.POST, "/method/post", AuthorityBitsAuthorizationManager.hasAnyRole(authorityRegistry, "ADMIN", "DEVELOPER"))
+
+                .add(HttpMethod.PATCH, "/method/patch", AuthorityBitsAuthorizationManager.hasAuthority(authorityRegistry, "REFACTOR"))
+
+                .add(HttpMethod.GET, "/method/get", AuthorityBitsAuthorizationManager.hasAuthority(authorityRegistry, "READ"))
+
+                // Métricas del actuator (por ejemplo la cache de tokens) solo para administradores
+                .add(HttpMethod.GET, "/actuator/**", AuthorityBitsAuthorizationManager.hasRole(authorityRegistry, "ADMIN"))
                 .build();
     }
 
@@ -91,23 +145,35 @@ public class SecurityConfig {
 
     // Define un AuthenticationProvider para autenticar usuarios desde base de datos
     @Bean
-    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService) {
-        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService, UserDetailsCache userDetailsCache,
+                                                         PasswordEncoder passwordEncoder,
+                                                         UserDetailsPasswordService userDetailsPasswordService) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider() {
+            // El pool de hashing saturado (BoundedPasswordEncoder) no es un error de credenciales:
+            // se traduce a una AuthenticationException para que la cadena responda 503 (HashingRejectedEntryPoint)
+            @Override
+            public Authentication authenticate(Authentication authentication) {
+                try {
+                    return super.authenticate(authentication);
+                } catch (PasswordHashingRejectedException exception) {
+                    throw new InternalAuthenticationServiceException(exception.getMessage(), exception);
+                }
+            }
+        };
 
         // Asigna el PasswordEncoder para verificar contraseñas encriptadas
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
 
         // Asigna el servicio que carga los usuarios desde la base de datos
         provider.setUserDetailsService(userDetailsService);
 
-        return provider;
-    }
+        // Cache acotada de usuarios, para no ir a la base de datos en cada login
+        provider.setUserCache(userDetailsCache);
 
-    // Define el PasswordEncoder (en este caso, BCrypt)
-    // Se usa para encriptar y comparar contraseñas de manera segura
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // Si el hash guardado usa un costo menor al actual, se actualiza al iniciar sesión
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
+
+        return provider;
     }
 }
 
@@ -0,0 +1,67 @@
+package com.app.config.authorization;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+// Authentication de un token JWT que además lleva sus authorities como máscara de bits
+// La máscara sigue la asignación de bits de AuthorityRegistry identificada por "layout"
+// También guarda el "jti", el "exp" y el "sid" del token, para revocarlo (logout) sin volver a decodificarlo
+public class AuthorityBitsAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private final long authorityBits;
+
+    private final int layout;
+
+    private final String tokenId;
+
+    private final long expiresAtMillis;
+
+    private final String sessionId;
+
+    public AuthorityBitsAuthenticationToken(Object principal,
+                                            Collection<? extends GrantedAuthority> authorities,
+                                            long authorityBits,
+                                            int layout) {
+        this(principal, authorities, authorityBits, layout, null, 0L, null);
+    }
+
+    public AuthorityBitsAuthenticationToken(Object principal,
+                                            Collection<? extends GrantedAuthority> authorities,
+                                            long authorityBits,
+                                            int layout,
+                                            String tokenId,
+                                            long expiresAtMillis,
+                                            String sessionId) {
+        super(principal, null, authorities);
+        this.authorityBits = authorityBits;
+        this.layout = layout;
+        this.tokenId = tokenId;
+        this.expiresAtMillis = expiresAtMillis;
+        this.sessionId = sessionId;
+    }
+
+    public long getAuthorityBits() {
+        return authorityBits;
+    }
+
+    public int getLayout() {
+        return layout;
+    }
+
+    // "jti" del token, o null si el token no tiene
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    // "exp" del token en milisegundos, o 0 si el token no tiene
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    // "sid" del token: familia de refresh tokens del login que lo emitió, o null si el token no tiene
+    public String getSessionId() {
+        return sessionId;
+    }
+}
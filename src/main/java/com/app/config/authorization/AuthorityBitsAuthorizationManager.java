@@ -0,0 +1,121 @@
+package com.app.config.authorization;
+
+import com.app.services.AuthorityRegistry;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/*
+ * Equivalente a hasAuthority / hasAnyAuthority / hasAnyRole, pero evaluado con un AND de bits.
+ * Si el usuario viene de un token JWT (AuthorityBitsAuthenticationToken) se compara su máscara
+ * con la máscara requerida por la regla. Si no, o si la asignación de bits cambió desde que
+ * se emitió el token, se compara por nombre como lo hace Spring Security.
+ */
+public final class AuthorityBitsAuthorizationManager<T> implements AuthorizationManager<T> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final AuthorityRegistry authorityRegistry;
+
+    private final Set<String> authorities;
+
+    // Máscara requerida, recalculada solo cuando cambia la asignación de bits
+    private volatile Required required;
+
+    private AuthorityBitsAuthorizationManager(AuthorityRegistry authorityRegistry, Set<String> authorities) {
+        this.authorityRegistry = authorityRegistry;
+        this.authorities = authorities;
+    }
+
+    public static <T> AuthorityBitsAuthorizationManager<T> hasAnyAuthority(AuthorityRegistry authorityRegistry, String... authorities) {
+        return new AuthorityBitsAuthorizationManager<>(authorityRegistry, Set.of(authorities));
+    }
+
+    public static <T> AuthorityBitsAuthorizationManager<T> hasAuthority(AuthorityRegistry authorityRegistry, String authority) {
+        return hasAnyAuthority(authorityRegistry, authority);
+    }
+
+    public static <T> AuthorityBitsAuthorizationManager<T> hasAnyRole(AuthorityRegistry authorityRegistry, String... roles) {
+        return hasAnyAuthority(authorityRegistry, Arrays.stream(roles)
+                .map("ROLE_"::concat)
+                .toArray(String[]::new));
+    }
+
+    public static <T> AuthorityBitsAuthorizationManager<T> hasRole(AuthorityRegistry authorityRegistry, String role) {
+        return hasAnyRole(authorityRegistry, role);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authenticationSupplier, T object) {
+        Authentication authentication = authenticationSupplier.get();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return DENIED;
+        }
+
+        Required current = required();
+        if (current.complete
+                && authentication instanceof AuthorityBitsAuthenticationToken token
+                && token.getLayout() == current.layout) {
+            return (token.getAuthorityBits() & current.mask) != 0 ? GRANTED : DENIED;
+        }
+
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (this.authorities.contains(authority.getAuthority())) {
+                return GRANTED;
+            }
+        }
+        return DENIED;
+    }
+
+    // La misma regla para la cadena de filtros de WebFlux (ReactiveSecurityConfig)
+    public ReactiveAuthorizationManager<T> reactive() {
+        return (authentication, object) -> authentication
+                .map(value -> check(() -> value, object))
+                .defaultIfEmpty(DENIED);
+    }
+
+    private Required required() {
+        Required current = this.required;
+        int layout = this.authorityRegistry.fingerprint();
+        if (current != null && current.layout == layout) {
+            return current;
+        }
+
+        long mask;
+        boolean complete;
+        int resolvedLayout;
+        // Si la asignación cambia mientras calculamos, volvemos a empezar
+        do {
+            resolvedLayout = layout;
+            mask = 0L;
+            complete = true;
+            for (String authority : this.authorities) {
+                int bit = this.authorityRegistry.bitOf(authority);
+                if (bit < 0) {
+                    complete = false;
+                } else {
+                    mask |= 1L << bit;
+                }
+            }
+            layout = this.authorityRegistry.fingerprint();
+        } while (layout != resolvedLayout);
+        current = new Required(mask, complete, layout);
+        this.required = current;
+        return current;
+    }
+
+    private record Required(long mask, boolean complete, int layout) {
+    }
+
+    @Override
+    public String toString() {
+        return "AuthorityBitsAuthorizationManager[authorities=" + this.authorities + "]";
+    }
+}
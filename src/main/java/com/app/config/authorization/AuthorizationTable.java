@@ -0,0 +1,235 @@
+package com.app.config.authorization;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/*
+ * Tabla de reglas de autorización "compilada", en lugar de la lista de requestMatchers
+ * que Spring Security recorre en orden para cada petición.
+ * - Las reglas se indexan por método HTTP y después en un árbol (trie) por segmentos del path
+ * - Resolver una petición cuesta un recorrido del path, sin importar cuántas reglas haya
+ * - Gana la primera regla declarada que coincida, igual que con requestMatchers;
+ *   si ninguna coincide se usa el valor por defecto (denyAll)
+ * Patrones soportados: paths exactos ("/method/get") y prefijos con "/**" ("/auth/**", que también
+ * coincide con "/auth"). Son los únicos que usan SecurityConfig y ReactiveSecurityConfig.
+ */
+public final class AuthorizationTable<T> {
+
+    private static final String ANY_SEGMENTS = "**";
+
+    // Reglas sin método: aplican a todos
+    private final Node<T> anyMethod;
+
+    private final Map<String, Node<T>> byMethod;
+
+    private final T unmatched;
+
+    private final int size;
+
+    private AuthorizationTable(Node<T> anyMethod, Map<String, Node<T>> byMethod, T unmatched, int size) {
+        this.anyMethod = anyMethod;
+        this.byMethod = byMethod;
+        this.unmatched = unmatched;
+        this.size = size;
+    }
+
+    // unmatched: lo que se retorna cuando ninguna regla coincide
+    public static <T> Builder<T> builder(T unmatched) {
+        return new Builder<>(unmatched);
+    }
+
+    // Valor de la primera regla (en orden de declaración) que coincide con el método y el path
+    public T resolve(String method, String path) {
+        Match<T> best = new Match<>();
+        this.anyMethod.match(path, best);
+        Node<T> root = method == null ? null : this.byMethod.get(method);
+        if (root != null) {
+            root.match(path, best);
+        }
+        return best.value != null ? best.value : this.unmatched;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    // AuthorizationManager para authorizeHttpRequests(...).anyRequest().access(...)
+    public static AuthorizationManager<RequestAuthorizationContext> servlet(
+            AuthorizationTable<AuthorizationManager<RequestAuthorizationContext>> table) {
+        return new AuthorizationManager<>() {
+            @Override
+            public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+                HttpServletRequest request = context.getRequest();
+                return table.resolve(request.getMethod(), pathOf(request)).check(authentication, context);
+            }
+
+            @Override
+            public String toString() {
+                return "AuthorizationTable[rules=" + table.size() + "]";
+            }
+        };
+    }
+
+    // ReactiveAuthorizationManager para authorizeExchange(...).anyExchange().access(...)
+    public static ReactiveAuthorizationManager<AuthorizationContext> reactive(
+            AuthorizationTable<ReactiveAuthorizationManager<AuthorizationContext>> table) {
+        return new ReactiveAuthorizationManager<>() {
+            @Override
+            public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, AuthorizationContext context) {
+                ServerHttpRequest request = context.getExchange().getRequest();
+                return table.resolve(request.getMethod().name(), request.getPath().pathWithinApplication().value())
+                        .check(authentication, context);
+            }
+
+            @Override
+            public String toString() {
+                return "AuthorizationTable[rules=" + table.size() + "]";
+            }
+        };
+    }
+
+    // Path dentro de la aplicación, como lo arman los RequestMatcher de Spring Security
+    private static String pathOf(HttpServletRequest request) {
+        String path = request.getServletPath();
+        String pathInfo = request.getPathInfo();
+        return pathInfo == null ? path : path + pathInfo;
+    }
+
+    public static final class Builder<T> {
+
+        private final T unmatched;
+
+        private final Node<T> anyMethod = new Node<>();
+
+        private final Map<String, Node<T>> byMethod = new HashMap<>();
+
+        private int order;
+
+        private Builder(T unmatched) {
+            this.unmatched = unmatched;
+        }
+
+        // method null: la regla aplica a todos los métodos
+        public Builder<T> add(HttpMethod method, String pattern, T value) {
+            Node<T> node = method == null ? this.anyMethod : this.byMethod.computeIfAbsent(method.name(), key -> new Node<>());
+
+            List<String> segments = segmentsOf(pattern);
+            boolean prefix = !segments.isEmpty() && ANY_SEGMENTS.equals(segments.get(segments.size() - 1));
+            if (prefix) {
+                segments = segments.subList(0, segments.size() - 1);
+            }
+            for (String segment : segments) {
+                if (segment.contains("*") || segment.contains("{")) {
+                    throw new IllegalArgumentException("Unsupported pattern " + pattern + ": only exact paths and a trailing /** are allowed");
+                }
+                node = node.children.computeIfAbsent(segment, key -> new Node<>());
+            }
+
+            // Una regla declarada antes con el mismo patrón ya gana siempre: la nueva no se usaría nunca
+            Rule<T> rule = new Rule<>(this.order++, value);
+            if (prefix) {
+                node.prefix = node.prefix == null ? rule : node.prefix;
+            } else {
+                node.exact = node.exact == null ? rule : node.exact;
+            }
+            return this;
+        }
+
+        public Builder<T> add(String pattern, T value) {
+            return add(null, pattern, value);
+        }
+
+        public AuthorizationTable<T> build() {
+            return new AuthorizationTable<>(this.anyMethod, Map.copyOf(this.byMethod), this.unmatched, this.order);
+        }
+
+        // "method/get" y "/method/get" son el mismo patrón
+        private static List<String> segmentsOf(String pattern) {
+            List<String> segments = new ArrayList<>();
+            int start = pattern.startsWith("/") ? 1 : 0;
+            if (start == pattern.length()) {
+                // "/": raíz
+                segments.add("");
+                return segments;
+            }
+            while (true) {
+                int slash = pattern.indexOf('/', start);
+                if (slash < 0) {
+                    segments.add(pattern.substring(start));
+                    return segments;
+                }
+                segments.add(pattern.substring(start, slash));
+                start = slash + 1;
+            }
+        }
+    }
+
+    // Nodo del trie: un segmento del path
+    private static final class Node<T> {
+
+        private final Map<String, Node<T>> children = new HashMap<>();
+
+        // Regla del path que termina en este nodo
+        private Rule<T> exact;
+
+        // Regla "/**": este nodo y todo lo que cuelga de él
+        private Rule<T> prefix;
+
+        // Recorre el path segmento por segmento, quedándose con la regla declarada primero
+        private void match(String path, Match<T> best) {
+            Node<T> node = this;
+            int start = path.startsWith("/") ? 1 : 0;
+            while (true) {
+                best.offer(node.prefix);
+                int slash = path.indexOf('/', start);
+                String segment = slash < 0 ? path.substring(start) : path.substring(start, slash);
+                if (segment.isEmpty() && slash < 0 && node != this) {
+                    // Barra final ("/auth/"): solo la cubren las reglas "/**"
+                    return;
+                }
+                node = node.children.get(segment);
+                if (node == null) {
+                    return;
+                }
+                if (slash < 0) {
+                    best.offer(node.prefix);
+                    best.offer(node.exact);
+                    return;
+                }
+                start = slash + 1;
+            }
+        }
+    }
+
+    private record Rule<T>(int order, T value) {
+    }
+
+    // Mejor regla encontrada hasta ahora (la de menor orden)
+    private static final class Match<T> {
+
+        private int order = Integer.MAX_VALUE;
+
+        private T value;
+
+        private void offer(Rule<T> rule) {
+            if (rule != null && rule.order() < this.order) {
+                this.order = rule.order();
+                this.value = rule.value();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.app.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/*
+ * Ajustes del pool de conexiones y del log de SQL (perfil prod, ver application-prod.properties).
+ * - Tamaño del pool según el modelo de hilos: núcleos * 2 + 1 (la fórmula de HikariCP).
+ *   Con hilos de plataforma no tiene sentido pasar de server.tomcat.threads.max; con virtual threads
+ *   el pool es el único límite de concurrencia contra MySQL y las peticiones de más esperan conexión
+ * - El log de SQL pasa por SampledStatementInspector en vez de spring.jpa.show-sql
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    private static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+
+    // Solo si no se fijó spring.datasource.hikari.maximum-pool-size
+    // static: un BeanPostProcessor se registra antes que el resto de la configuración
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.pool.auto-size", havingValue = "true")
+    public static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && !environment.containsProperty(MAXIMUM_POOL_SIZE)) {
+                    int cores = Runtime.getRuntime().availableProcessors();
+                    boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+                    int size = cores * 2 + 1;
+                    if (!virtualThreads) {
+                        size = Math.min(size, environment.getProperty("server.tomcat.threads.max", Integer.class, 200));
+                    }
+                    // Pool de tamaño fijo, como recomienda HikariCP: no hay conexiones que abrir bajo carga
+                    dataSource.setMaximumPoolSize(size);
+                    dataSource.setMinimumIdle(size);
+                    log.info("Hikari pool {} sized to {} connections ({} cores, virtual threads {})",
+                            dataSource.getPoolName(), size, cores, virtualThreads);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Registra el inspector en Hibernate; el nivel del logger decide si se escribe algo
+    @Bean
+    @ConditionalOnProperty(name = "app.sql.sampled-log.enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer sampledStatementLogging(Environment environment) {
+        double rate = environment.getProperty("app.sql.sampled-log.rate", Double.class, 0.01);
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SampledStatementInspector(rate));
+    }
+}
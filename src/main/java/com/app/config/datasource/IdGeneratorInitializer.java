@@ -0,0 +1,100 @@
+package com.app.config.datasource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+
+/*
+ * Lleva cada fila de "id_generators" después de los ids que ya existen en su tabla.
+ * Las tablas creadas cuando los ids eran IDENTITY ya tienen filas, pero su generador (@TableGenerator)
+ * empieza en 1: sin este paso los primeros INSERT chocarían con ids existentes.
+ * - Con el optimizador pooled, un next_val = v entrega los ids v - allocationSize + 1 .. v,
+ *   así que el mínimo seguro es MAX(id) + allocationSize
+ * - Solo sube el valor, nunca lo baja: es idempotente y se puede correr en cada arranque
+ * Corre al crear el bean, después de que Hibernate actualizó el esquema y antes del seed de RBAC
+ * y de las primeras peticiones.
+ */
+@Component
+public class IdGeneratorInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorInitializer.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.datasource.id-generators.initialize:true}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void initialize() {
+        if (!this.enabled) {
+            return;
+        }
+        SessionFactoryImplementor sessionFactory = this.entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        for (EntityType<?> entity : this.entityManagerFactory.getMetamodel().getEntities()) {
+            TableGenerator generator = tableGeneratorOf(entity.getJavaType());
+            if (generator != null
+                    && sessionFactory.getMappingMetamodel().getEntityDescriptor(entity.getJavaType()) instanceof AbstractEntityPersister persister) {
+                initialize(generator, persister.getTableName(), persister.getIdentifierColumnNames()[0]);
+            }
+        }
+    }
+
+    private void initialize(TableGenerator generator, String table, String idColumn) {
+        Long max = this.jdbcTemplate.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+        if (max == null) {
+            // Tabla vacía: el valor inicial del generador ya sirve
+            return;
+        }
+        long required = max + generator.allocationSize();
+
+        String update = "update " + generator.table() + " set " + generator.valueColumnName() + " = ?"
+                + " where " + generator.pkColumnName() + " = ? and " + generator.valueColumnName() + " < ?";
+        if (this.jdbcTemplate.update(update, required, generator.pkColumnValue(), required) > 0) {
+            log.info("Id generator {} moved to {} (max id in {} is {})", generator.pkColumnValue(), required, table, max);
+            return;
+        }
+
+        // La fila ya existe con un valor suficiente
+        Integer rows = this.jdbcTemplate.queryForObject("select count(*) from " + generator.table()
+                + " where " + generator.pkColumnName() + " = ?", Integer.class, generator.pkColumnValue());
+        if (rows != null && rows > 0) {
+            return;
+        }
+
+        // Sin fila: Hibernate la crearía con el valor inicial (1). Se crea ya con el valor correcto
+        try {
+            this.jdbcTemplate.update("insert into " + generator.table() + " (" + generator.pkColumnName() + ", "
+                    + generator.valueColumnName() + ") values (?, ?)", generator.pkColumnValue(), required);
+            log.info("Id generator {} initialized to {} (max id in {} is {})", generator.pkColumnValue(), required, table, max);
+        } catch (DuplicateKeyException e) {
+            // Otra instancia la creó al mismo tiempo: se vuelve a intentar el UPDATE
+            this.jdbcTemplate.update(update, required, generator.pkColumnValue(), required);
+        }
+    }
+
+    private static TableGenerator tableGeneratorOf(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            TableGenerator generator = field.getAnnotation(TableGenerator.class);
+            if (generator != null) {
+                return generator;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.app.config.datasource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Log de SQL por muestreo: registra una fracción de las sentencias (rate, entre 0 y 1)
+// A diferencia de spring.jpa.show-sql (System.out en cada sentencia), con el logger en WARN o con rate=0
+// solo cuesta un isInfoEnabled; no modifica el SQL
+public class SampledStatementInspector implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger(SampledStatementInspector.class);
+
+    private final double rate;
+
+    public SampledStatementInspector(double rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (this.rate > 0 && log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < this.rate) {
+            log.info("{}", sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,88 @@
+package com.app.config.filter;
+
+import com.app.utils.TokenRejectedException;
+
+import java.util.Set;
+
+// Revisiones baratas del header Authorization antes de cualquier trabajo criptográfico
+// Compartidas por JwtTokenValidator (servlet) y JwtAuthenticationWebFilter (WebFlux).
+// Todas recorren el String del header sin crear objetos; solo un token bien formado se copia (substring).
+public final class BearerTokens {
+
+    // Respuesta 401 para un token Bearer inválido (RFC 6750)
+    public static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+
+    // Rutas públicas (permitAll en SecurityConfig y ReactiveSecurityConfig): el filtro JWT no corre en ellas
+    // /auth/logout y /auth/sign-up/batch no están aquí porque necesitan un token
+    private static final Set<String> PUBLIC_PATHS = Set.of(
+            "/auth/sign-up", "/auth/log-in", "/auth/refresh", "/.well-known/jwks.json");
+
+    private static final String SCHEME = "Bearer";
+
+    // Un JWT tiene al menos un header y un payload de unos pocos bytes; más de 8 KB no es un token nuestro
+    private static final int MIN_TOKEN_LENGTH = 16;
+    private static final int MAX_TOKEN_LENGTH = 8192;
+
+    private BearerTokens() {
+    }
+
+    public static boolean isPublicPath(String path) {
+        return path != null && PUBLIC_PATHS.contains(path);
+    }
+
+    // Retorna el token de un header "Bearer <jwt>", o null si el header no usa el esquema Bearer
+    // (no hay header, o es Basic u otro esquema: la petición sigue su camino sin este filtro)
+    // Lanza TokenRejectedException.MALFORMED si es Bearer pero el token no tiene la forma de un JWT
+    public static String extract(String header) {
+        if (header == null || header.length() < SCHEME.length()
+                || !header.regionMatches(true, 0, SCHEME, 0, SCHEME.length())) {
+            return null;
+        }
+        if (header.length() == SCHEME.length()) {
+            throw TokenRejectedException.MALFORMED;
+        }
+        if (header.charAt(SCHEME.length()) != ' ') {
+            // Por ejemplo "BearerX ...": otro esquema
+            return null;
+        }
+
+        int start = SCHEME.length();
+        while (start < header.length() && header.charAt(start) == ' ') {
+            start++;
+        }
+
+        if (!isWellFormed(header, start)) {
+            throw TokenRejectedException.MALFORMED;
+        }
+        return header.substring(start);
+    }
+
+    // Tres segmentos no vacíos separados por puntos, solo con el alfabeto base64url y de largo acotado
+    static boolean isWellFormed(String value, int start) {
+        int length = value.length() - start;
+        if (length < MIN_TOKEN_LENGTH || length > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+
+        int dots = 0;
+        int segmentLength = 0;
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (segmentLength == 0 || ++dots > 2) {
+                    return false;
+                }
+                segmentLength = 0;
+            } else if (isBase64Url(c)) {
+                segmentLength++;
+            } else {
+                return false;
+            }
+        }
+        return dots == 2 && segmentLength > 0;
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+}
@@ -1,23 +1,20 @@
 package com.app.config.filter;
 
+import com.app.config.metrics.AuthMetrics;
 import com.app.utils.JwtUtils;
-import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collection;
 
 // Filtro que va a validar si el token es válido
 // OncePerRequestFilter quiere decir que cada vez que se haga una solicitud, se ejecuta el filtro
@@ -25,8 +22,17 @@ public class JwtTokenValidator extends OncePerRequestFilter {
 
     private JwtUtils jwtUtils;
 
-    public JwtTokenValidator(JwtUtils jwtUtils) {
+    private AuthMetrics authMetrics;
+
+    public JwtTokenValidator(JwtUtils jwtUtils, AuthMetrics authMetrics) {
         this.jwtUtils = jwtUtils;
+        this.authMetrics = authMetrics;
+    }
+
+    // En las rutas públicas (login, registro, refresh, JWKS) no se revisa el token
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return BearerTokens.isPublicPath(request.getServletPath());
     }
 
     @Override
@@ -35,54 +41,41 @@ public class JwtTokenValidator extends OncePerRequestFilter {
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
 
         // Obtenemos el header que viene de la solicitud
-        String jwtToken = request.getHeader(HttpHeaders.AUTHORIZATION);
-
-        // Si el token es diferente a null
-        if (jwtToken != null){
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
 
-            // Lo primero que tenemos que hacer es quitarle un pedazo de string al token
-            // porque este viene asi, por ejemplo "Bearer onidwqniodinowqdionqwdnoiqwoindqoinwd"
-            // por ende, necesitamos quitarle ese "Bearer"
-            // Existen varias formas de hacerlo por:
-            jwtToken = jwtToken.substring(7);// extrae el index a partir del indice 7
-            //jwtToken = jwtToken.replace("Bearer ", ""); // reemplaza ese el contenido
-
-            // Validamos el token
-            DecodedJWT decodedJWT = jwtUtils.validateToken(jwtToken);
+        Authentication authentication = null;
+        long start = authMetrics.start();
+        try {
+            // Quita el "Bearer " del header, por ejemplo "Bearer onidwqniodinowqdionqwdnoiqwoindqoinwd".
+            // Antes de verificar nada se revisa la forma del token (tres segmentos base64url, largo acotado);
+            // un header que no es Bearer (por ejemplo Basic) sigue sin pasar por este filtro
+            String jwtToken = BearerTokens.extract(header);
 
+            // Validamos el token (o reutilizamos el Authentication si ya se verificó antes)
             // Si el token es valido, vamos a conceder la autorizacion de acceso
+            if (jwtToken != null) {
+                authentication = jwtUtils.authenticateToken(jwtToken);
+                authMetrics.tokenVerified(start, AuthMetrics.TokenOutcome.VALID);
+            }
+        } catch (JWTVerificationException exception) {
+            authMetrics.tokenVerified(start, AuthMetrics.TokenOutcome.of(exception));
+            // Token mal formado, inválido, vencido o revocado: 401 sin seguir con la cadena
+            SecurityContextHolder.clearContext();
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, BearerTokens.INVALID_TOKEN_CHALLENGE);
+            return;
+        }
 
-            // Obtenemos el usuario
-            String username = jwtUtils.extractUsername(decodedJWT);
-
-            // Obtenemos los authorities (permisos) en formato string
-            String stringAuthorities = jwtUtils.getSpecificClaim(decodedJWT, "authorities").asString();
-
-            // Ahora toca setear el usuario en el Security Context Holder
-
-            // Dame los permisos "READ,CREATE,DELETE..." en una lista de permisos GrantedAuthority
-            // Que es como Spring Security entiende los permisos
-            Collection<? extends GrantedAuthority> authorities =
-                    AuthorityUtils.commaSeparatedStringToAuthorityList(stringAuthorities); // Obtenemos los permisos
-
+        if (authentication != null) {
             // Seteamos al contexto
-            // Instancia del contexto
-            SecurityContext context = SecurityContextHolder.getContext();
-
-            // Objeto authentication
-            Authentication authentication = new UsernamePasswordAuthenticationToken(username, null, authorities);
-
-            // Seteamos
+            // Con esto le damos acceso al usuario si el token es valido
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
             context.setAuthentication(authentication);
-
             SecurityContextHolder.setContext(context);
-
-            // Con esto le damos acceso al usuario si el token es valido
         }
 
         // continua con el siguiente filtro
-        // Si no hago nada con el token,
-        // la autenticacion va a fallar
+        // Si no hay token, la autenticacion queda en manos de los siguientes filtros (por ejemplo Basic)
         filterChain.doFilter(request, response);
     }
 }
@@ -0,0 +1,150 @@
+package com.app.config.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Filtro que limita los intentos de POST /auth/log-in por usuario y por IP (ver LoginRateLimiter)
+// Corre antes de la autenticación, así un ataque de fuerza bruta no llega a consumir BCrypt
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/auth/log-in";
+
+    // El cuerpo de un login son unos pocos bytes; uno más grande no es un login legítimo
+    private static final int MAX_BODY_BYTES = 4096;
+
+    private static final long ONE_SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final String TOO_MANY_REQUESTS_BODY =
+            "{\"message\":\"Too many login attempts, try again later\",\"status\":false}";
+
+    private final LoginRateLimiter loginRateLimiter;
+
+    private final ObjectMapper objectMapper;
+
+    public LoginRateLimitFilter(LoginRateLimiter loginRateLimiter, ObjectMapper objectMapper) {
+        this.loginRateLimiter = loginRateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !LOGIN_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        // Para saber el usuario hay que leer el cuerpo; se guarda para que el controlador lo vuelva a leer
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+
+        // getRemoteAddr ya respeta X-Forwarded-For si server.forward-headers-strategy está configurado;
+        // leer el header directamente permitiría a cualquiera inventarse una IP nueva en cada intento
+        long waitNanos = loginRateLimiter.tryAcquire(username(body), request.getRemoteAddr());
+        if (waitNanos > 0) {
+            // Retry-After va en segundos enteros: se redondea hacia arriba
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + ONE_SECOND_NANOS - 1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(TOO_MANY_REQUESTS_BODY);
+            return;
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    // null si el cuerpo no es un JSON con "username": solo cuenta el límite por IP y el controlador responde 400
+    private String username(byte[] body) {
+        try {
+            JsonNode username = objectMapper.readTree(body).get("username");
+            return username != null && username.isTextual() && !username.asText().isBlank() ? username.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Petición con el cuerpo ya leído en memoria
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(this.body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(@NonNull byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return this.body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return this.body.length;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.app.config.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Límite de intentos de login por usuario y por IP, antes de llegar a BCrypt.
+ * Cada llave tiene un token bucket (algoritmo GCRA): el estado es un solo long con el
+ * "momento teórico de llegada", que se actualiza con un CAS. No hay locks, así que
+ * logins de usuarios distintos nunca se esperan entre sí, y dos intentos del mismo
+ * usuario solo compiten por un CAS.
+ * Los buckets viven en caches de Caffeine acotadas en tamaño y que olvidan las llaves inactivas,
+ * así la memoria queda acotada aunque lleguen millones de usuarios o IPs inventados.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+
+    private final Limit usernameLimit;
+    private final Limit ipLimit;
+
+    private final Cache<String, Bucket> usernameBuckets;
+    private final Cache<String, Bucket> ipBuckets;
+
+    private final Counter usernameRejected;
+    private final Counter ipRejected;
+
+    public LoginRateLimiter(@Value("${security.login.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${security.login.rate-limit.username.capacity:5}") int usernameCapacity,
+                            @Value("${security.login.rate-limit.username.period:1m}") Duration usernamePeriod,
+                            @Value("${security.login.rate-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${security.login.rate-limit.ip.period:1m}") Duration ipPeriod,
+                            @Value("${security.login.rate-limit.max-keys:100000}") long maxKeys,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.usernameLimit = new Limit(usernameCapacity, usernamePeriod);
+        this.ipLimit = new Limit(ipCapacity, ipPeriod);
+
+        // Una llave sin intentos durante todo un periodo ya tiene el bucket lleno: se puede olvidar
+        this.usernameBuckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(usernamePeriod)
+                .recordStats()
+                .build();
+        this.ipBuckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(ipPeriod)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.usernameBuckets, "login.rate-limit.username");
+        CaffeineCacheMetrics.monitor(meterRegistry, this.ipBuckets, "login.rate-limit.ip");
+        this.usernameRejected = Counter.builder("auth.login.rate-limited")
+                .description("Login attempts rejected by the rate limiter")
+                .tag("key", "username")
+                .register(meterRegistry);
+        this.ipRejected = Counter.builder("auth.login.rate-limited")
+                .description("Login attempts rejected by the rate limiter")
+                .tag("key", "ip")
+                .register(meterRegistry);
+    }
+
+    // Retorna 0 si el intento puede seguir, o cuántos nanosegundos faltan para el siguiente permitido
+    // username puede ser null (cuerpo inválido): entonces solo cuenta el límite por IP
+    public long tryAcquire(String username, String ip) {
+        if (!this.enabled) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+
+        if (ip != null) {
+            long wait = this.ipBuckets.get(ip, key -> new Bucket(now)).tryAcquire(now, this.ipLimit);
+            if (wait > 0) {
+                this.ipRejected.increment();
+                return wait;
+            }
+        }
+
+        if (username != null) {
+            // "Samuel" y "SAMUEL" comparten bucket, para no saltarse el límite cambiando mayúsculas
+            String key = username.toLowerCase(Locale.ROOT);
+            long wait = this.usernameBuckets.get(key, k -> new Bucket(now)).tryAcquire(now, this.usernameLimit);
+            if (wait > 0) {
+                this.usernameRejected.increment();
+                return wait;
+            }
+        }
+        return 0L;
+    }
+
+    // capacity intentos seguidos como máximo, y luego uno cada period / capacity
+    private record Limit(long interval, long tolerance) {
+
+        private Limit(int capacity, Duration period) {
+            this(period.toNanos() / capacity, period.toNanos() / capacity * (capacity - 1));
+        }
+    }
+
+    // Token bucket GCRA: el estado es el momento en que el bucket vuelve a estar vacío
+    private static final class Bucket {
+
+        private final AtomicLong theoreticalArrival;
+
+        private Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        private long tryAcquire(long now, Limit limit) {
+            while (true) {
+                long current = this.theoreticalArrival.get();
+                long allowedAt = current - limit.tolerance();
+                if (now - allowedAt < 0) {
+                    return allowedAt - now;
+                }
+                long next = Math.max(current, now) + limit.interval();
+                if (this.theoreticalArrival.compareAndSet(current, next)) {
+                    return 0L;
+                }
+            }
+        }
+    }
+}
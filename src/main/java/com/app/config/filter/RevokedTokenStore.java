@@ -0,0 +1,258 @@
+package com.app.config.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Lista de tokens revocados (logout), por "jti".
+ * - Un filtro de Bloom responde "seguro no está" sin locks ni allocations, que es el caso de casi todas las peticiones
+ * - Solo si el filtro dice "puede estar" se consulta el mapa exacto jti -> exp
+ * - Cada entrada vive hasta el "exp" del token: después el token ya no pasa la validación por sí solo.
+ *   La purga periódica las quita y reconstruye el filtro, así la memoria queda acotada
+ *   por los tokens revocados que todavía no expiraron
+ * - Cada revocación se agrega a un archivo (append-only) para sobrevivir reinicios.
+ *   Al arrancar y al purgar se reescribe el archivo solo con las entradas vigentes
+ */
+@Component
+public class RevokedTokenStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenStore.class);
+
+    // Con 1% de falsos positivos: ~9.6 bits y 7 funciones hash por elemento
+    private static final int HASHES = 7;
+    private static final double BITS_PER_ENTRY = 9.6;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private final int expectedTokens;
+
+    // Vacío: solo en memoria (se pierde al reiniciar)
+    private final Path file;
+
+    private final Counter rejected;
+
+    // Se reemplaza completo al purgar; las escrituras se serializan con writeLock
+    private volatile BloomFilter filter;
+
+    private final Object writeLock = new Object();
+
+    private FileChannel channel;
+
+    public RevokedTokenStore(@Value("${security.jwt.revocation.expected-tokens:100000}") int expectedTokens,
+                             @Value("${security.jwt.revocation.file:}") String file,
+                             MeterRegistry meterRegistry) {
+        this.expectedTokens = expectedTokens;
+        this.file = file == null || file.isBlank() ? null : Path.of(file);
+        this.filter = new BloomFilter(expectedTokens);
+
+        Gauge.builder("jwt.revoked.size", this.revoked, Map::size)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("jwt.revoked.rejected")
+                .description("Requests rejected because their token was revoked")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        if (this.file == null) {
+            return;
+        }
+        synchronized (this.writeLock) {
+            if (Files.exists(this.file)) {
+                long now = System.currentTimeMillis();
+                for (String line : Files.readAllLines(this.file, StandardCharsets.US_ASCII)) {
+                    int space = line.indexOf(' ');
+                    if (space <= 0) {
+                        continue;
+                    }
+                    try {
+                        long expiresAt = Long.parseLong(line.substring(space + 1).trim());
+                        if (expiresAt > now) {
+                            this.revoked.put(line.substring(0, space), expiresAt);
+                        }
+                    } catch (NumberFormatException e) {
+                        // Línea incompleta (por ejemplo, un corte en medio de una escritura)
+                    }
+                }
+            } else if (this.file.getParent() != null) {
+                Files.createDirectories(this.file.getParent());
+            }
+            rebuild();
+            log.info("Loaded {} revoked tokens from {}", this.revoked.size(), this.file);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (this.writeLock) {
+            if (this.channel != null) {
+                this.channel.close();
+            }
+        }
+    }
+
+    // true si el token fue revocado y todavía no expiró
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !this.filter.mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = this.revoked.get(tokenId);
+        if (expiresAt != null && expiresAt > System.currentTimeMillis()) {
+            this.rejected.increment();
+            return true;
+        }
+        return false;
+    }
+
+    // Revoca un token hasta su "exp"
+    public void revoke(String tokenId, long expiresAtMillis) {
+        if (tokenId == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        synchronized (this.writeLock) {
+            if (this.revoked.putIfAbsent(tokenId, expiresAtMillis) != null) {
+                return;
+            }
+            this.filter.add(tokenId);
+            append(tokenId, expiresAtMillis);
+        }
+    }
+
+    public int size() {
+        return this.revoked.size();
+    }
+
+    // Quita las entradas de tokens ya expirados y reconstruye el filtro (un filtro de Bloom no permite borrar)
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.purge-interval:1m}")
+    public void purge() {
+        synchronized (this.writeLock) {
+            long now = System.currentTimeMillis();
+            if (this.revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+                rebuild();
+            }
+        }
+    }
+
+    // Debe llamarse con writeLock
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(this.expectedTokens, this.revoked.size() * 2));
+        this.revoked.keySet().forEach(rebuilt::add);
+        this.filter = rebuilt;
+        compact();
+    }
+
+    // Reescribe el archivo solo con las entradas vigentes. Debe llamarse con writeLock
+    private void compact() {
+        if (this.file == null) {
+            return;
+        }
+        Path temporary = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        try {
+            if (this.channel != null) {
+                this.channel.close();
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.US_ASCII)) {
+                for (Map.Entry<String, Long> entry : this.revoked.entrySet()) {
+                    writer.write(entry.getKey() + ' ' + entry.getValue() + '\n');
+                }
+            }
+            Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Unable to compact the revoked tokens file {}", this.file, e);
+        }
+    }
+
+    // Debe llamarse con writeLock
+    private void append(String tokenId, long expiresAtMillis) {
+        if (this.channel == null) {
+            return;
+        }
+        try {
+            this.channel.write(ByteBuffer.wrap((tokenId + ' ' + expiresAtMillis + '\n').getBytes(StandardCharsets.US_ASCII)));
+            // Un logout es poco frecuente: vale la pena asegurar que quedó en disco
+            this.channel.force(false);
+        } catch (IOException e) {
+            // La revocación sigue vigente en memoria aunque no se haya podido guardar
+            log.error("Unable to persist the revocation of token {}", tokenId, e);
+        }
+    }
+
+    // Filtro de Bloom de tamaño fijo; se puede leer sin locks mientras otro hilo agrega
+    private static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final int bits;
+
+        private BloomFilter(int expectedEntries) {
+            int words = (int) Math.max(1, Math.ceil(expectedEntries * BITS_PER_ENTRY / Long.SIZE));
+            this.words = new AtomicLongArray(words);
+            this.bits = words * Long.SIZE;
+        }
+
+        private void add(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = index(h1 + i * h2);
+                long mask = 1L << bit;
+                this.words.getAndUpdate(bit >>> 6, word -> word | mask);
+            }
+        }
+
+        private boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = index(h1 + i * h2);
+                if ((this.words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int index(int combined) {
+            return (combined & Integer.MAX_VALUE) % this.bits;
+        }
+
+        // FNV-1a de 64 bits sobre los caracteres (un jti es un UUID en ASCII), sin crear arreglos
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            // Mezcla final para repartir los bits altos y bajos (double hashing usa las dos mitades)
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.app.config.filter;
+
+import com.app.services.RbacChangedEvent;
+import com.app.utils.InstancePool;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+// Cache acotada de tokens ya verificados
+// La llave es el SHA-256 del token (nunca guardamos el token en claro) y el valor es el
+// Authentication ya construido, así un token repetido no vuelve a pasar por el HMAC,
+// la decodificación del JSON ni el parseo del claim "authorities".
+// Cada entrada expira exactamente en el "exp" del token.
+@Component
+public class VerifiedTokenCache {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    // MessageDigest y buffers compartidos entre hilos (ver InstancePool: un ThreadLocal con virtual threads
+    // crearía uno en cada petición)
+    private static final InstancePool<TokenDigest> DIGESTS = new InstancePool<>(TokenDigest::new);
+
+    private final Cache<TokenKey, CachedAuthentication> cache;
+
+    public VerifiedTokenCache(@Value("${security.jwt.cache.max-size:10000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+
+        // Expone cache.gets (hit/miss), cache.evictions y cache.size en /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "jwt.verified-tokens");
+    }
+
+    // Retorna el Authentication de un token ya verificado, o null si hay que verificarlo
+    public Authentication get(String token) {
+        CachedAuthentication cached = this.cache.getIfPresent(keyOf(token));
+        if (cached == null) {
+            return null;
+        }
+        // Un token que todavía no es válido ("nbf" en el futuro) se trata como miss
+        if (System.currentTimeMillis() < cached.notBeforeMillis()) {
+            return null;
+        }
+        return cached.authentication();
+    }
+
+    // Guarda el Authentication de un token que acaba de pasar la verificación
+    public void put(String token, DecodedJWT decodedJWT, Authentication authentication) {
+        Instant expiresAt = decodedJWT.getExpiresAtAsInstant();
+        // Sin "exp" no sabemos hasta cuándo es válido, así que no se cachea
+        if (expiresAt == null) {
+            return;
+        }
+        Instant notBefore = decodedJWT.getNotBeforeAsInstant();
+
+        this.cache.put(keyOf(token), new CachedAuthentication(
+                authentication,
+                notBefore == null ? 0L : notBefore.toEpochMilli(),
+                expiresAt.toEpochMilli()));
+    }
+
+    // Los authorities cacheados dependen de los roles y permisos: después de un cambio se vuelven a
+    // construir con la asignación actual, igual que un token que no estaba en la cache
+    // (AuthorityRegistry se refresca antes, ver su @Order)
+    @EventListener(RbacChangedEvent.class)
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    // Contadores de aciertos, fallos y desalojos para dimensionar la cache
+    public CacheStats stats() {
+        return this.cache.stats();
+    }
+
+    public long size() {
+        return this.cache.estimatedSize();
+    }
+
+    private static TokenKey keyOf(String token) {
+        TokenDigest digest = DIGESTS.acquire();
+        TokenKey key = digest.keyOf(token);
+        DIGESTS.release(digest);
+        return key;
+    }
+
+    private record TokenKey(long a, long b, long c, long d) {
+    }
+
+    private record CachedAuthentication(Authentication authentication, long notBeforeMillis, long expiresAtMillis) {
+    }
+
+    // La entrada vive hasta el "exp" del token, sin importar cuántas veces se lea
+    private static final class TokenExpiry implements Expiry<TokenKey, CachedAuthentication> {
+
+        @Override
+        public long expireAfterCreate(TokenKey key, CachedAuthentication value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0L));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenKey key, CachedAuthentication value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenKey key, CachedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    // MessageDigest y buffers reutilizables para calcular la llave
+    private static final class TokenDigest {
+
+        private final MessageDigest sha256;
+        private final byte[] hash = new byte[32];
+        private byte[] ascii = new byte[1024];
+
+        private TokenDigest() {
+            try {
+                this.sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        @SuppressWarnings("deprecation")
+        private TokenKey keyOf(String token) {
+            int length = token.length();
+            if (this.ascii.length < length) {
+                this.ascii = new byte[Math.max(length, this.ascii.length * 2)];
+            }
+            // Un JWT solo tiene caracteres base64url y puntos (ASCII)
+            token.getBytes(0, length, this.ascii, 0);
+            this.sha256.update(this.ascii, 0, length);
+            try {
+                this.sha256.digest(this.hash, 0, this.hash.length);
+            } catch (DigestException e) {
+                this.sha256.reset();
+                throw new IllegalStateException(e);
+            }
+            return new TokenKey(
+                    (long) LONGS.get(this.hash, 0),
+                    (long) LONGS.get(this.hash, 8),
+                    (long) LONGS.get(this.hash, 16),
+                    (long) LONGS.get(this.hash, 24));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.app.config.metrics;
+
+import com.app.utils.TokenRejectedException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+
+/*
+ * Puntos de medición del pipeline de autenticación (filtro JWT, login, firma de tokens).
+ * Hay una sola implementación activa por aplicación (ver AuthMetricsConfig):
+ * - MicrometerAuthMetrics: timers y contadores de Micrometer
+ * - NOOP: con las métricas apagadas. start() no llama a System.nanoTime y el resto de métodos
+ *   no hacen nada, así que el JIT los elimina del camino de cada petición
+ * Uso: long start = authMetrics.start(); ... authMetrics.tokenVerified(start, outcome);
+ */
+public interface AuthMetrics {
+
+    AuthMetrics NOOP = new AuthMetrics() {
+    };
+
+    // Momento de inicio de una medición (0 si las métricas están apagadas)
+    default long start() {
+        return 0L;
+    }
+
+    // Verificación del token Bearer en JwtTokenValidator / JwtAuthenticationWebFilter
+    default void tokenVerified(long start, TokenOutcome outcome) {
+    }
+
+    // Armado del Authentication a partir de los claims de un token ya verificado
+    default void claimsParsed(long start) {
+    }
+
+    // Consulta del usuario y sus roles en la base de datos
+    default void userLookup(long start, boolean found) {
+    }
+
+    // Comparación de la contraseña contra el hash (BCrypt)
+    default void passwordChecked(long start, boolean matched) {
+    }
+
+    // Firma de un token de acceso
+    default void tokenSigned(long start) {
+    }
+
+    // Resultado de un login (/auth/log-in)
+    default void login(LoginOutcome outcome) {
+    }
+
+    enum TokenOutcome {
+        VALID, MALFORMED, INVALID, OUTDATED, REVOKED;
+
+        public static TokenOutcome of(JWTVerificationException exception) {
+            if (exception == TokenRejectedException.MALFORMED) {
+                return MALFORMED;
+            }
+            if (exception == TokenRejectedException.OUTDATED) {
+                return OUTDATED;
+            }
+            if (exception == TokenRejectedException.REVOKED) {
+                return REVOKED;
+            }
+            return INVALID;
+        }
+    }
+
+    enum LoginOutcome {
+        SUCCESS, UNKNOWN_USER, BAD_CREDENTIALS, OVERLOADED
+    }
+}
@@ -0,0 +1,17 @@
+package com.app.config.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Elige la implementación de AuthMetrics: con app.metrics.auth.enabled=false queda la no-op
+@Configuration
+public class AuthMetricsConfig {
+
+    @Bean
+    public AuthMetrics authMetrics(@Value("${app.metrics.auth.enabled:true}") boolean enabled,
+                                   MeterRegistry meterRegistry) {
+        return enabled ? new MicrometerAuthMetrics(meterRegistry) : AuthMetrics.NOOP;
+    }
+}
@@ -0,0 +1,114 @@
+package com.app.config.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Métricas del pipeline de autenticación con Micrometer
+// Todos los meters se registran al arrancar; en cada petición solo se indexa un arreglo por el ordinal del resultado
+// Los histogramas de percentiles se activan en application.properties (management.metrics.distribution.*)
+public class MicrometerAuthMetrics implements AuthMetrics {
+
+    private final Timer[] tokenVerify;
+    private final Timer claimsParse;
+    private final Timer userFound;
+    private final Timer userMissing;
+    private final Timer passwordMatch;
+    private final Timer passwordMismatch;
+    private final Timer tokenSign;
+    private final Counter[] logins;
+
+    public MicrometerAuthMetrics(MeterRegistry meterRegistry) {
+        TokenOutcome[] tokenOutcomes = TokenOutcome.values();
+        this.tokenVerify = new Timer[tokenOutcomes.length];
+        for (TokenOutcome outcome : tokenOutcomes) {
+            this.tokenVerify[outcome.ordinal()] = Timer.builder("auth.jwt.verify")
+                    .description("Bearer token verification in the security filter")
+                    .tag("outcome", tagOf(outcome))
+                    .register(meterRegistry);
+        }
+
+        this.claimsParse = Timer.builder("auth.jwt.claims.parse")
+                .description("Building the Authentication from verified token claims")
+                .register(meterRegistry);
+
+        this.userFound = userLookup(meterRegistry, "found");
+        this.userMissing = userLookup(meterRegistry, "missing");
+
+        this.passwordMatch = passwordCheck(meterRegistry, "match");
+        this.passwordMismatch = passwordCheck(meterRegistry, "mismatch");
+
+        this.tokenSign = Timer.builder("auth.jwt.sign")
+                .description("Access token signing")
+                .register(meterRegistry);
+
+        LoginOutcome[] loginOutcomes = LoginOutcome.values();
+        this.logins = new Counter[loginOutcomes.length];
+        for (LoginOutcome outcome : loginOutcomes) {
+            this.logins[outcome.ordinal()] = Counter.builder("auth.login")
+                    .description("Login attempts by outcome")
+                    .tag("outcome", tagOf(outcome))
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public long start() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void tokenVerified(long start, TokenOutcome outcome) {
+        record(this.tokenVerify[outcome.ordinal()], start);
+    }
+
+    @Override
+    public void claimsParsed(long start) {
+        record(this.claimsParse, start);
+    }
+
+    @Override
+    public void userLookup(long start, boolean found) {
+        record(found ? this.userFound : this.userMissing, start);
+    }
+
+    @Override
+    public void passwordChecked(long start, boolean matched) {
+        record(matched ? this.passwordMatch : this.passwordMismatch, start);
+    }
+
+    @Override
+    public void tokenSigned(long start) {
+        record(this.tokenSign, start);
+    }
+
+    @Override
+    public void login(LoginOutcome outcome) {
+        this.logins[outcome.ordinal()].increment();
+    }
+
+    private static void record(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer userLookup(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("auth.user.lookup")
+                .description("User and roles lookup in the database")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Timer passwordCheck(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("auth.password.verify")
+                .description("Password hash comparison")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String tagOf(Enum<?> outcome) {
+        return outcome.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,56 @@
+package com.app.config.password;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+// Calcula el costo (strength) de BCrypt que más se acerca a un tiempo de hash objetivo en este hardware
+// Cada punto de strength duplica el tiempo, así que se mide un costo base y se extrapola
+public final class BCryptCostCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+
+    public static final int MIN_STRENGTH = 4;
+    public static final int MAX_STRENGTH = 31;
+
+    private static final int SAMPLES = 5;
+
+    private BCryptCostCalibrator() {
+    }
+
+    // Mayor strength cuyo tiempo estimado no supera el objetivo, nunca menor que minStrength
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        int base = Math.max(minStrength, MIN_STRENGTH);
+        long baseNanos = measure(base);
+
+        int strength = base;
+        long estimated = baseNanos;
+        while (strength < Math.min(maxStrength, MAX_STRENGTH) && estimated * 2 <= target.toNanos()) {
+            strength++;
+            estimated *= 2;
+        }
+
+        log.info("BCrypt calibrated: strength {} (~{} ms per hash, target {} ms, strength {} took {} ms)",
+                strength, estimated / 1_000_000, target.toMillis(), base, baseNanos / 1_000_000);
+        return strength;
+    }
+
+    // Mediana de varias mediciones, descartando la primera (calentamiento)
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode("calibration");
+        encoder.matches("calibration", hash);
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches("calibration", hash);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
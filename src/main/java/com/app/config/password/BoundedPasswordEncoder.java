@@ -0,0 +1,164 @@
+package com.app.config.password;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * PasswordEncoder que ejecuta el hashing (BCrypt) en un pool propio y acotado.
+ * Cada encode/matches de BCrypt consume decenas de milisegundos de CPU; si se hace en los hilos
+ * del servidor, una ráfaga de logins deja sin CPU al resto de los endpoints.
+ * - El pool tiene tantos hilos como núcleos (o los configurados) y una cola acotada
+ * - Si la cola está llena, o la espera supera el máximo, se rechaza de inmediato
+ *   con PasswordHashingRejectedException (503)
+ * - Exporta la profundidad de la cola, el tiempo de espera y el tiempo de hashing
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Duration maxWait;
+
+    private final Timer waitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  Duration maxWait, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWait = maxWait;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("Tiempo que una operación de hashing espera en la cola")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Operaciones rechazadas por cola llena o espera excedida")
+                .register(meterRegistry);
+
+        Gauge.builder("password.hashing.queue", this.executor, e -> e.getQueue().size())
+                .description("Operaciones de hashing en cola")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", this.executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> this.delegate.encode(rawPassword), this.encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> this.delegate.matches(rawPassword, encodedPassword), this.matchesTimer);
+    }
+
+    // Solo lee el hash, no necesita pasar por el pool
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // Lo llama Spring al cerrar el contexto (destroy method inferido del @Bean)
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    // Genera los hashes de varias contraseñas en paralelo, usando todos los hilos del pool.
+    // Se envían en ventanas del tamaño del pool para no llenar la cola y dejar lugar a los logins
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int window = this.executor.getMaximumPoolSize();
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (int start = 0; start < rawPasswords.size(); start += window) {
+            List<Future<String>> futures = new ArrayList<>(window);
+            for (CharSequence rawPassword : rawPasswords.subList(start, Math.min(start + window, rawPasswords.size()))) {
+                futures.add(schedule(() -> this.delegate.encode(rawPassword), this.encodeTimer));
+            }
+            for (Future<String> future : futures) {
+                hashes.add(await(future));
+            }
+        }
+        return hashes;
+    }
+
+    private <T> T submit(Callable<T> task, Timer hashTimer) {
+        return await(schedule(task, hashTimer));
+    }
+
+    private <T> Future<T> schedule(Callable<T> task, Timer hashTimer) {
+        long queuedAt = System.nanoTime();
+
+        try {
+            return this.executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                this.waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            this.rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full", exception);
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(this.maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException exception) {
+            future.cancel(true);
+            this.rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing timed out", exception);
+        } catch (InterruptedException exception) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Password hashing interrupted", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + this.counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
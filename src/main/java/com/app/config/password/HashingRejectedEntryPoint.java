@@ -0,0 +1,45 @@
+package com.app.config.password;
+
+import com.app.controllers.dto.AuthResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+
+import java.io.IOException;
+
+// Entry point de la autenticación básica (httpBasic) en la cadena de seguridad servlet
+// Si la autenticación falló porque el pool de hashing está saturado responde 503 con Retry-After,
+// igual que AuthExceptionHandler en los controladores; cualquier otro fallo es el 401 de siempre
+public class HashingRejectedEntryPoint implements AuthenticationEntryPoint {
+
+    private final BasicAuthenticationEntryPoint basic = new BasicAuthenticationEntryPoint();
+
+    private final ObjectMapper objectMapper;
+
+    public HashingRejectedEntryPoint(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // Mismo realm que pone HttpBasicConfigurer por defecto
+        this.basic.setRealmName("Realm");
+    }
+
+    @Override
+    public void commence(HttpServletRequest request, HttpServletResponse response,
+                         AuthenticationException authException) throws IOException, ServletException {
+        if (!PasswordHashingRejectedException.isCauseOf(authException)) {
+            this.basic.commence(request, response, authException);
+            return;
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        this.objectMapper.writeValue(response.getOutputStream(),
+                new AuthResponse(null, "Server busy, try again later", null, false));
+    }
+}
@@ -0,0 +1,25 @@
+package com.app.config.password;
+
+// Se lanza cuando el pool de hashing de contraseñas está lleno y no puede aceptar más trabajo
+// Se responde con 503 y Retry-After (ver AuthExceptionHandler) en vez de bloquear el hilo de la petición
+// En la autenticación básica llega envuelta en una AuthenticationServiceException (ver HashingRejectedEntryPoint)
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    // true si la excepción o alguna de sus causas es un rechazo del pool de hashing
+    public static boolean isCauseOf(Throwable throwable) {
+        for (Throwable current = throwable; current != null; current = current.getCause()) {
+            if (current instanceof PasswordHashingRejectedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
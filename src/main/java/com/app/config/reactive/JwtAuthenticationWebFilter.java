@@ -0,0 +1,61 @@
+package com.app.config.reactive;
+
+import com.app.config.filter.BearerTokens;
+import com.app.config.metrics.AuthMetrics;
+import com.app.utils.JwtUtils;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// Equivalente reactivo de JwtTokenValidator para la cadena de filtros de WebFlux
+// La validación del token (y su cache) es la misma: JwtUtils.authenticateToken
+// Verificar un HMAC cuesta microsegundos, así que se hace directamente en el event loop
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtUtils jwtUtils;
+
+    private final AuthMetrics authMetrics;
+
+    public JwtAuthenticationWebFilter(JwtUtils jwtUtils, AuthMetrics authMetrics) {
+        this.jwtUtils = jwtUtils;
+        this.authMetrics = authMetrics;
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        // En las rutas públicas (login, registro, refresh, JWKS) no se revisa el token
+        if (BearerTokens.isPublicPath(exchange.getRequest().getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        Authentication authentication;
+        long start = authMetrics.start();
+        try {
+            // Sin token Bearer (por ejemplo Basic), la petición sigue sin autenticar por este filtro
+            String token = BearerTokens.extract(header);
+            if (token == null) {
+                return chain.filter(exchange);
+            }
+            authentication = jwtUtils.authenticateToken(token);
+            authMetrics.tokenVerified(start, AuthMetrics.TokenOutcome.VALID);
+        } catch (JWTVerificationException exception) {
+            authMetrics.tokenVerified(start, AuthMetrics.TokenOutcome.of(exception));
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, BearerTokens.INVALID_TOKEN_CHALLENGE);
+            return exchange.getResponse().setComplete();
+        }
+
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+}
@@ -0,0 +1,96 @@
+package com.app.config.reactive;
+
+import com.app.config.password.PasswordHashingRejectedException;
+import com.app.controllers.dto.AuthCreateUserRequest;
+import com.app.controllers.dto.AuthLoginRequest;
+import com.app.controllers.dto.AuthRefreshRequest;
+import com.app.controllers.dto.AuthResponse;
+import com.app.services.UserDetailService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/*
+ * Endpoints /auth/** para el modo WebFlux, equivalentes a AuthenticationController.
+ * UserDetailService es bloqueante (JPA y BCrypt), así que cada llamada corre en el scheduler
+ * acotado "authBlockingScheduler" y el event loop queda libre.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthRoutes {
+
+    @Bean
+    public RouterFunction<ServerResponse> authRoutes(UserDetailService userDetailService, Validator validator,
+                                                     @Qualifier("authBlockingScheduler") Scheduler authBlockingScheduler) {
+        return route(POST("/auth/sign-up"), request -> handle(request, AuthCreateUserRequest.class, validator,
+                        authBlockingScheduler, body -> userDetailService.createUser(body), HttpStatus.CREATED))
+                .andRoute(POST("/auth/log-in"), request -> handle(request, AuthLoginRequest.class, validator,
+                        authBlockingScheduler, body -> userDetailService.loginUser(body), HttpStatus.OK))
+                .andRoute(POST("/auth/refresh"), request -> handle(request, AuthRefreshRequest.class, validator,
+                        authBlockingScheduler, body -> userDetailService.refreshToken(body), HttpStatus.OK))
+                .andRoute(POST("/auth/logout"), request -> request.principal()
+                        .cast(Authentication.class)
+                        .flatMap(authentication -> Mono.fromCallable(blocking(() -> userDetailService.logoutUser(authentication)))
+                                .subscribeOn(authBlockingScheduler))
+                        .flatMap(response -> ServerResponse.status(response.status() ? HttpStatus.OK : HttpStatus.BAD_REQUEST)
+                                .bodyValue(response)));
+    }
+
+    private <T> Mono<ServerResponse> handle(ServerRequest request, Class<T> bodyType, Validator validator,
+                                            Scheduler scheduler, BlockingCall<T> call, HttpStatus status) {
+        return request.bodyToMono(bodyType)
+                .flatMap(body -> {
+                    Set<ConstraintViolation<T>> violations = validator.validate(body);
+                    if (!violations.isEmpty()) {
+                        return ServerResponse.badRequest().bodyValue(
+                                new AuthResponse(null, violations.iterator().next().getMessage(), null, false));
+                    }
+                    return Mono.fromCallable(blocking(() -> call.apply(body)))
+                            .subscribeOn(scheduler)
+                            .flatMap(response -> ServerResponse.status(status).bodyValue(response));
+                })
+                .onErrorResume(AuthenticationException.class, exception -> ServerResponse.status(HttpStatus.UNAUTHORIZED)
+                        .bodyValue(new AuthResponse(null, exception.getMessage(), null, false)))
+                .onErrorResume(IllegalArgumentException.class, exception -> ServerResponse.badRequest()
+                        .bodyValue(new AuthResponse(null, exception.getMessage(), null, false)))
+                .onErrorResume(PasswordHashingRejectedException.class, exception -> ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .bodyValue(new AuthResponse(null, "Server busy, try again later", null, false)));
+    }
+
+    // UserDetailService deja el Authentication en el SecurityContextHolder (ThreadLocal);
+    // en un scheduler compartido hay que limpiarlo para que no quede en el hilo
+    private static <R> Callable<R> blocking(Callable<R> callable) {
+        return () -> {
+            try {
+                return callable.call();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface BlockingCall<T> {
+        AuthResponse apply(T body);
+    }
+}
@@ -0,0 +1,141 @@
+package com.app.config.reactive;
+
+import com.app.config.authorization.AuthorityBitsAuthorizationManager;
+import com.app.config.authorization.AuthorizationTable;
+import com.app.config.metrics.AuthMetrics;
+import com.app.config.password.PasswordHashingRejectedException;
+import com.app.services.AuthorityRegistry;
+import com.app.services.ReactiveUserDetailService;
+import com.app.utils.JwtUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authorization.AuthenticatedReactiveAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpBasicServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import org.springframework.security.web.server.authentication.ServerAuthenticationFailureHandler;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Cadena de seguridad de WebFlux, espejo de SecurityConfig (modo servlet).
+ * Mismas reglas, mismo formato de token y mismo AuthorizationManager por bits.
+ * Solo se activa cuando la aplicación arranca en modo reactivo (perfil reactive).
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    private static final byte[] SERVER_BUSY_BODY =
+            "{\"message\":\"Server busy, try again later\",\"status\":false}".getBytes(StandardCharsets.UTF_8);
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtUtils jwtUtils,
+                                                         AuthorityRegistry authorityRegistry, AuthMetrics authMetrics) {
+        return http
+                // Desactiva CSRF
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                // Usa autenticación HTTP básica
+                // Con el pool de hashing saturado responde 503 con Retry-After en vez de 500
+                .httpBasic(basic -> basic.authenticationFailureHandler(basicFailureHandler()))
+                // Sin sesiones (stateless)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                // Mismas reglas que SecurityConfig, resueltas con una sola búsqueda en la tabla
+                .authorizeExchange(exchange -> exchange.anyExchange().access(AuthorizationTable.reactive(authorizationTable(authorityRegistry))))
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtUtils, authMetrics), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    // Reglas en orden: gana la primera que coincide y lo que no coincide con ninguna se niega
+    private static AuthorizationTable<ReactiveAuthorizationManager<AuthorizationContext>> authorizationTable(AuthorityRegistry authorityRegistry) {
+        ReactiveAuthorizationManager<AuthorizationContext> permitAll = (authentication, context) -> Mono.just(new AuthorizationDecision(true));
+        ReactiveAuthorizationManager<AuthorizationContext> denyAll = (authentication, context) -> Mono.just(new AuthorizationDecision(false));
+
+        return AuthorizationTable.builder(denyAll)
+                // Logout revoca el token de la petición, así que necesita uno
+                .add(HttpMethod.POST, "/auth/logout", AuthenticatedReactiveAuthorizationManager.authenticated())
+
+                // Todos los demás endpoints que tienen /auth deben ser publicos
+                .add(HttpMethod.POST, "/auth/**", permitAll)
+
+                // Llaves públicas de firma de los tokens
+                .add(HttpMethod.GET, "/.well-known/jwks.json", permitAll)
+
+                // Configurar endpoints privados
+                .add(HttpMethod.POST, "/method/post",
+                        AuthorityBitsAuthorizationManager.<AuthorizationContext>hasAnyRole(authorityRegistry, "ADMIN", "DEVELOPER").reactive())
+
+                .add(HttpMethod.PATCH, "/method/patch",
+                        AuthorityBitsAuthorizationManager.<AuthorizationContext>hasAuthority(authorityRegistry, "REFACTOR").reactive())
+
+                .add(HttpMethod.GET, "/method/get",
+                        AuthorityBitsAuthorizationManager.<AuthorizationContext>hasAuthority(authorityRegistry, "READ").reactive())
+
+                .add(HttpMethod.GET, "/actuator/**",
+                        AuthorityBitsAuthorizationManager.<AuthorizationContext>hasRole(authorityRegistry, "ADMIN").reactive())
+                .build();
+    }
+
+    // Fallo de la autenticación básica: 503 si el pool de hashing rechazó el trabajo, 401 en cualquier otro caso
+    private static ServerAuthenticationFailureHandler basicFailureHandler() {
+        ServerAuthenticationFailureHandler unauthorized =
+                new ServerAuthenticationEntryPointFailureHandler(new HttpBasicServerAuthenticationEntryPoint());
+        return (webFilterExchange, exception) -> {
+            if (!PasswordHashingRejectedException.isCauseOf(exception)) {
+                return unauthorized.onAuthenticationFailure(webFilterExchange, exception);
+            }
+            ServerHttpResponse response = webFilterExchange.getExchange().getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(SERVER_BUSY_BODY)));
+        };
+    }
+
+    // Scheduler acotado para el trabajo bloqueante de la autenticación (JPA y BCrypt)
+    @Bean(destroyMethod = "dispose")
+    public Scheduler authBlockingScheduler(@Value("${app.reactive.blocking.threads:0}") int threads,
+                                           @Value("${app.reactive.blocking.queue-capacity:256}") int queueCapacity) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Schedulers.newBoundedElastic(size, queueCapacity, "auth-blocking");
+    }
+
+    // Autenticación HTTP básica: busca el usuario y compara la contraseña en el scheduler acotado
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveUserDetailService userDetailService,
+                                                                       PasswordEncoder passwordEncoder,
+                                                                       @Qualifier("authBlockingScheduler") Scheduler authBlockingScheduler) {
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailService);
+        manager.setPasswordEncoder(passwordEncoder);
+        manager.setScheduler(authBlockingScheduler);
+        manager.setUserDetailsPasswordService(userDetailService);
+        // El rechazo del pool de hashing se vuelve una AuthenticationException, así llega a basicFailureHandler
+        return authentication -> manager.authenticate(authentication)
+                .onErrorMap(PasswordHashingRejectedException.class,
+                        exception -> new AuthenticationServiceException(exception.getMessage(), exception));
+    }
+}
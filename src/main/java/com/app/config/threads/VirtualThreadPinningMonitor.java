@@ -0,0 +1,96 @@
+package com.app.config.threads;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+ * Diagnóstico de pinning de virtual threads usando JFR (evento jdk.VirtualThreadPinned).
+ * Un virtual thread queda "pinned" cuando bloquea dentro de un synchronized o de código nativo:
+ * mientras tanto ocupa su carrier thread y reduce el paralelismo real.
+ * Cada evento que supera el umbral se registra en el log con las primeras líneas del stack
+ * (ahí se ve si viene del driver JDBC, de Hikari o de Hibernate) y se cuenta en métricas.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int STACK_DEPTH = 8;
+
+    private final Duration threshold;
+
+    private final Counter pinnedCounter;
+
+    private final Timer pinnedTimer;
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(@Value("${app.threads.pinning-monitor.threshold:20ms}") Duration threshold,
+                                       MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads fijados a su carrier más tiempo que el umbral")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        this.recordingStream = new RecordingStream();
+        this.recordingStream.enable(PINNED_EVENT)
+                .withThreshold(this.threshold)
+                .withStackTrace();
+        this.recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        this.recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold {} ms)", this.threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (this.recordingStream != null) {
+            this.recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        this.pinnedCounter.increment();
+        this.pinnedTimer.record(event.getDuration());
+
+        if (log.isWarnEnabled()) {
+            log.warn("Virtual thread {} pinned for {} ms at:\n{}",
+                    event.getThread() != null ? event.getThread().getJavaName() : "?",
+                    event.getDuration().toMillis(),
+                    format(event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of()));
+        }
+    }
+
+    private static String format(List<RecordedFrame> frames) {
+        return frames.stream()
+                .limit(STACK_DEPTH)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "."
+                        + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,22 @@
+package com.app.controllers;
+
+import com.app.config.password.PasswordHashingRejectedException;
+import com.app.controllers.dto.AuthResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Traduce las excepciones de los endpoints de autenticación a respuestas HTTP
+@RestControllerAdvice
+public class AuthExceptionHandler {
+
+    // El pool de hashing está saturado: respuesta rápida para que el cliente reintente más tarde
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<AuthResponse> handleHashingRejected(PasswordHashingRejectedException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new AuthResponse(null, "Server busy, try again later", null, false));
+    }
+}
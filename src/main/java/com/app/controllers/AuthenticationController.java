@@ -1,35 +1,68 @@
 package com.app.controllers;
 
-import com.app.controllers.dto.AuthCreateUserRequest;
 import com.app.controllers.dto.AuthCreateUserRequest;
 import com.app.controllers.dto.AuthLoginRequest;
+import com.app.controllers.dto.AuthRefreshRequest;
 import com.app.controllers.dto.AuthResponse;
 import com.app.services.UserDetailService;
+import com.app.services.UserProvisioningService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // En modo WebFlux se usa ReactiveAuthRoutes
 public class AuthenticationController {
 
     @Autowired
     UserDetailService userDetailService;
 
+    @Autowired
+    UserProvisioningService userProvisioningService;
+
     // Endpoint para que un usuario se puede registrar en la aplicación
     @PostMapping("/sign-up")
     public ResponseEntity<AuthResponse> register(@RequestBody @Valid AuthCreateUserRequest authCreateUser){
         return new ResponseEntity<>(this.userDetailService.createUser(authCreateUser), HttpStatus.CREATED);
     }
 
+    // Alta masiva: recibe un usuario por línea (NDJSON) y responde una línea de resultado por cada uno
+    // Solo para administradores (ver SecurityConfig). Las filas se procesan y responden por bloques
+    @PostMapping(value = "/sign-up/batch", consumes = "application/x-ndjson")
+    public void registerBatch(InputStream body, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        this.userProvisioningService.provision(body, response.getOutputStream());
+    }
+
     @PostMapping("/log-in")
     public ResponseEntity<AuthResponse> login(@RequestBody @Valid AuthLoginRequest userRequest){
         AuthResponse response = this.userDetailService.loginUser(userRequest);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
+
+    // Renueva el token de acceso con un refresh token, sin volver a verificar la contraseña
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody @Valid AuthRefreshRequest refreshRequest){
+        return new ResponseEntity<>(this.userDetailService.refreshToken(refreshRequest), HttpStatus.OK);
+    }
+
+    // Revoca el token con el que se llama (Authorization: Bearer ...)
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponse> logout(Authentication authentication){
+        AuthResponse response = this.userDetailService.logoutUser(authentication);
+        return new ResponseEntity<>(response, response.status() ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
+    }
 }
@@ -0,0 +1,34 @@
+package com.app.controllers;
+
+import com.app.utils.SigningKeyStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Llaves públicas de firma (JWKS), para que otros servicios verifiquen nuestros tokens sin un secreto compartido
+// Sirve igual en modo servlet y en modo WebFlux
+@RestController
+public class JwksController {
+
+    @Autowired
+    private SigningKeyStore keyStore;
+
+    // El mismo plazo que espera una llave nueva en SigningKeyStore antes de firmar
+    @Value("${security.jwt.keys.publish-delay:5m}")
+    private Duration maxAge;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> jwks() {
+        // Los clientes pueden guardarla hasta publish-delay: una llave nueva pasa ese tiempo publicada antes de firmar
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(this.maxAge).cachePublic())
+                .body(Map.of("keys", this.keyStore.jwks()));
+    }
+}
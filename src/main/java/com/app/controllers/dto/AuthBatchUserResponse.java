@@ -0,0 +1,9 @@
+package com.app.controllers.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// Resultado de una fila del alta masiva (una línea NDJSON de la respuesta)
+@JsonPropertyOrder({"line", "username", "message", "status"})
+public record AuthBatchUserResponse(long line, String username, String message, boolean status) {
+
+}
@@ -0,0 +1,6 @@
+package com.app.controllers.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record AuthRefreshRequest(@NotBlank String refreshToken) {
+}
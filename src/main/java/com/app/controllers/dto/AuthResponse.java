@@ -1,8 +1,14 @@
 package com.app.controllers.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
-@JsonPropertyOrder({"username", "message", "jwt", "status"}) // orden a la respuesta
-public record AuthResponse (String username, String message, String jwt, boolean status){
+@JsonPropertyOrder({"username", "message", "jwt", "refreshToken", "status"}) // orden a la respuesta
+public record AuthResponse (String username, String message, String jwt, boolean status,
+                            @JsonInclude(JsonInclude.Include.NON_NULL) String refreshToken){
 
+    // Respuesta sin refresh token (errores, logout)
+    public AuthResponse(String username, String message, String jwt, boolean status) {
+        this(username, message, jwt, status, null);
+    }
 }
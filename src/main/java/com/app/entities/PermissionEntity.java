@@ -17,8 +17,14 @@ import lombok.NoArgsConstructor;
 public class PermissionEntity {
 
 
+    // Ids desde "id_generators", igual que UserEntity, pero de a uno (allocationSize = 1):
+    // el id define el bit del permiso en AuthorityRegistry, así que tiene que ser denso y no saltar
+    // un bloque en cada arranque. Los permisos se crean muy de vez en cuando
+    // En una base existente, IdGeneratorInitializer arranca el generador después del MAX(id) actual
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "permissions_id")
+    @TableGenerator(name = "permissions_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "permissions", allocationSize = 1)
     private Long id;
 
     // Mapea el campo 'name' a una columna en la tabla:
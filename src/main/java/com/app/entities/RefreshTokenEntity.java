@@ -0,0 +1,45 @@
+package com.app.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "refresh_tokens", indexes = @Index(name = "idx_refresh_tokens_family", columnList = "family_id"))
+public class RefreshTokenEntity {
+
+    // Ids por bloques desde "id_generators", igual que las demás entidades
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "refresh_tokens_id")
+    @TableGenerator(name = "refresh_tokens_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "refresh_tokens", allocationSize = 50)
+    private Long id;
+
+    // SHA-256 del token (en hexadecimal). El token en claro nunca se guarda
+    @Column(name = "token_hash", unique = true, nullable = false, length = 64, updatable = false)
+    private String tokenHash;
+
+    @Column(nullable = false, updatable = false)
+    private String username;
+
+    // Todos los tokens que salen de un mismo login por rotación comparten la familia
+    @Column(name = "family_id", nullable = false, length = 36, updatable = false)
+    private String familyId;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private Instant expiresAt;
+
+    // Ya se cambió por uno nuevo: volver a presentarlo es un reuso
+    private boolean used;
+
+    // La familia se revocó (por ejemplo, al detectar un reuso)
+    private boolean revoked;
+}
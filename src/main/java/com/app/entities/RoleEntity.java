@@ -4,8 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import org.springframework.http.HttpStatus;
+import lombok.ToString;
 
 import java.util.Set;
 
@@ -15,10 +16,19 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Table(name = "roles")
+// Plan de carga para cuando se necesitan los permisos de los roles
+@NamedEntityGraph(
+        name = "RoleEntity.permissions",
+        attributeNodes = @NamedAttributeNode("permissionList")
+)
 public class RoleEntity {
 
+    // Ids por bloques desde "id_generators", igual que UserEntity, para que los INSERT se agrupen en lotes
+    // En una base existente, IdGeneratorInitializer arranca el generador después del MAX(id) actual
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "roles_id")
+    @TableGenerator(name = "roles_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "roles", allocationSize = 50)
     private Long id;
 
     // Mapea el campo 'roleEnum' a la columna 'role_name' con un máximo de 50 caracteres.
@@ -28,14 +38,16 @@ public class RoleEntity {
     private RoleEnum roleEnum;
 
     // Relación muchos a muchos entre roles y permisos.
-    // 'fetch = EAGER' indica que los permisos se cargan inmediatamente junto con el rol.
-    // 'cascade = ALL' propaga todas las operaciones (persist, merge, remove, etc.) al conjunto de permisos.
+    // 'fetch = LAZY' indica que los permisos se cargan solo cuando se piden (o con el entity graph).
+    // 'cascade = PERSIST, MERGE' guarda los permisos nuevos junto con el rol, sin borrarlos al borrar el rol.
     // Se utiliza una tabla intermedia llamada 'roles_permissions' para mapear esta relación.
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
             name = "roles_permissions", // nombre de la tabla intermedia
             joinColumns = @JoinColumn(name = "role_id"), // columna que referencia al rol
             inverseJoinColumns = @JoinColumn(name = "permission_id") // columna que referencia al permiso
     )
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Set<PermissionEntity> permissionList;
 }
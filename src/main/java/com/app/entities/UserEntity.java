@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.HashSet;
 import java.util.List;
@@ -16,10 +18,21 @@ import java.util.Set;
 @NoArgsConstructor
 @Builder // Permite usar el patrón builder para construir objetos UserEntity
 @Table(name = "users")
+// Plan de carga para quien necesita el usuario con roles y permisos (UserEntityRepository.findUserEntityByUsername)
+@NamedEntityGraph(
+        name = "UserEntity.authorities",
+        attributeNodes = @NamedAttributeNode(value = "roles", subgraph = "permissions"),
+        subgraphs = @NamedSubgraph(name = "permissions", attributeNodes = @NamedAttributeNode("permissionList"))
+)
 public class UserEntity {
 
+    // Los ids salen de la tabla "id_generators" en bloques de 50 (optimizador pooled)
+    // Con IDENTITY Hibernate tiene que ejecutar cada INSERT para conocer el id y no puede agruparlos en lotes
+    // En una base existente, IdGeneratorInitializer arranca el generador después del MAX(id) actual
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+    @TableGenerator(name = "users_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
     private Long id;
 
     // Nombre de usuario único para el login
@@ -47,14 +60,17 @@ public class UserEntity {
     private Boolean credentialNoExpired;
 
     // Relación muchos a muchos entre usuarios y roles.
-    // Carga los roles inmediatamente con el usuario (fetch = EAGER)
-    // Las operaciones se propagan a los roles (cascade = ALL)
+    // Los roles se cargan solo cuando se piden (fetch = LAZY) o con un entity graph
+    // Guardar un usuario también guarda sus roles nuevos (cascade = PERSIST, MERGE),
+    // pero borrar un usuario no borra los roles que comparte con otros usuarios
     // Usa una tabla intermedia llamada "users_roles" que enlaza usuarios con roles
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
             name = "users_roles", // Nombre de la tabla intermedia
             joinColumns = @JoinColumn(name = "user_id"), // Columna que hace referencia al usuario
             inverseJoinColumns = @JoinColumn(name = "role_id") // Columna que hace referencia al rol
     )
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Set<RoleEntity> roles = new HashSet<>();
 }
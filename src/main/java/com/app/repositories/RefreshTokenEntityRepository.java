@@ -0,0 +1,30 @@
+package com.app.repositories;
+
+import com.app.entities.RefreshTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenEntityRepository extends JpaRepository<RefreshTokenEntity, Long> {
+
+    Optional<RefreshTokenEntity> findByTokenHash(String tokenHash);
+
+    // Marca el token como usado solo si nadie lo usó antes (atómico frente a dos rotaciones simultáneas)
+    @Modifying
+    @Query("update RefreshTokenEntity t set t.used = true where t.tokenHash = :tokenHash and t.used = false")
+    int markUsed(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("update RefreshTokenEntity t set t.revoked = true where t.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("delete from RefreshTokenEntity t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -2,7 +2,9 @@ package com.app.repositories;
 
 import com.app.entities.RoleEntity;
 import com.app.entities.RoleEnum;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,5 +13,12 @@ import java.util.Optional;
 @Repository
 public interface RoleEntityRepository extends JpaRepository<RoleEntity, Long> {
     Optional<RoleEntity> findByRoleEnum(RoleEnum roleEnum);
+
+    // Solo los roles (sin permisos): basta para enlazarlos a un usuario nuevo
     List<RoleEntity> findRoleEntitiesByRoleEnumIn(List<String> roleRequest);
+
+    // Todos los roles con sus permisos en una sola consulta
+    @EntityGraph("RoleEntity.permissions")
+    @Query("select r from RoleEntity r")
+    List<RoleEntity> findAllWithPermissions();
 }
@@ -1,14 +1,41 @@
 package com.app.repositories;
 
 import com.app.entities.UserEntity;
+import com.app.repositories.projections.UserAuthorityRow;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserEntityRepository extends JpaRepository<UserEntity, Long> {
 
+    // Usuario con todo su grafo de roles y permisos, como cuando las relaciones eran EAGER
+    // El login no la usa: loadUserByUsername lee filas planas (findAuthorityRowsByUsername)
+    @EntityGraph("UserEntity.authorities")
     Optional<UserEntity> findUserEntityByUsername(String username);
 
+    // Cuáles de estos nombres de usuario ya existen (para el alta masiva)
+    @Query("select u.username from UserEntity u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // Trae el usuario y sus roles en una sola consulta
+    // Los permisos de cada rol ya están en memoria (RoleAuthoritySnapshot)
+    @Query("""
+            select u.username as username, u.password as password, u.isEnabled as isEnabled,
+                   u.accountNoExpired as accountNoExpired, u.accountNoLocked as accountNoLocked,
+                   u.credentialNoExpired as credentialNoExpired,
+                   r.roleEnum as roleEnum
+            from UserEntity u
+            left join u.roles r
+            where u.username = :username
+            """)
+    List<UserAuthorityRow> findAuthorityRowsByUsername(@Param("username") String username);
+
 }
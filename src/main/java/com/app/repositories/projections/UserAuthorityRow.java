@@ -0,0 +1,23 @@
+package com.app.repositories.projections;
+
+import com.app.entities.RoleEnum;
+
+// Fila plana con los datos de login de un usuario: una fila por cada rol
+// Los permisos de cada rol se toman de RoleAuthoritySnapshot, no de la base de datos
+// No es una entidad administrada por Hibernate, solo un modelo de lectura
+public interface UserAuthorityRow {
+
+    String getUsername();
+
+    String getPassword();
+
+    Boolean getIsEnabled();
+
+    Boolean getAccountNoExpired();
+
+    Boolean getAccountNoLocked();
+
+    Boolean getCredentialNoExpired();
+
+    RoleEnum getRoleEnum();
+}
@@ -0,0 +1,284 @@
+package com.app.services;
+
+import com.app.entities.PermissionEntity;
+import com.app.entities.RoleEnum;
+import com.app.repositories.PermissionEntityRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Registro canónico de authorities (roles y permisos).
+ * El conjunto de authorities es pequeño y fijo: los valores de RoleEnum con el prefijo "ROLE_"
+ * más los permisos de la tabla permissions. Se cargan una vez y se comparten las mismas
+ * instancias inmutables de SimpleGrantedAuthority en toda la aplicación.
+ * Además se guarda la lista ya construida para cada claim "authorities" distinto,
+ * así que parsear el claim de un token es solo una búsqueda en un mapa.
+ *
+ * Cada authority tiene también un bit estable dentro de un long:
+ * - bits 0 a 15: roles, según el ordinal de RoleEnum
+ * - bits 16 a 63: permisos, según su id (ROLE_BITS + id - 1). Agregar o borrar un permiso no mueve
+ *   los bits de los demás; un permiso con un id que no cabe en el long se queda sin bit y viaja como texto
+ * Con eso los authorities de un token se pueden codificar como un solo número
+ * y las reglas de autorización se evalúan con un AND de bits.
+ * El fingerprint identifica la asignación (los pares nombre-bit asignados). Una asignación nueva que
+ * no cambia el significado de ningún bit sigue aceptando los tokens emitidos con las anteriores.
+ */
+@Service
+public class AuthorityRegistry {
+
+    public static final int ROLE_BITS = 16;
+    public static final int MAX_BITS = Long.SIZE;
+
+    // Fingerprints anteriores que se siguen aceptando como máximo, para que la memoria quede acotada
+    private static final int MAX_ACCEPTED_LAYOUTS = 64;
+
+    // Límite de claims distintos que se guardan, para que la memoria quede acotada
+    private static final int MAX_CACHED_CLAIMS = 4096;
+
+    @Autowired
+    private PermissionEntityRepository permissionRepository;
+
+    // Se reemplaza completo en cada refresco (copy-on-write), las lecturas no usan locks
+    private volatile Layout layout = Layout.build(List.of());
+
+    // Se carga al arrancar (después del seeding) y cada vez que cambian roles o permisos
+    // Se refresca antes que las demás copias en memoria, que usan sus instancias
+    @EventListener({ApplicationReadyEvent.class, RbacChangedEvent.class})
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void refresh() {
+        Layout previous = this.layout;
+        Layout next = Layout.build(permissionRepository.findAll(Sort.by("id")));
+        next.acceptFrom(previous);
+        this.layout = next;
+    }
+
+    // Retorna la instancia compartida de un authority
+    public GrantedAuthority authority(String name) {
+        GrantedAuthority authority = this.layout.authorities.get(name);
+        // Un authority que no está en el registro no se guarda, para no crecer sin límite
+        return authority != null ? authority : new SimpleGrantedAuthority(name);
+    }
+
+    // Convierte el claim "ROLE_ADMIN,CREATE,READ" en una lista inmutable de authorities
+    public List<GrantedAuthority> parseClaim(String claim) {
+        if (claim == null || claim.isEmpty()) {
+            return List.of();
+        }
+
+        Layout current = this.layout;
+        List<GrantedAuthority> parsed = current.claims.get(claim);
+        if (parsed != null) {
+            return parsed;
+        }
+
+        parsed = current.split(claim);
+        if (current.claims.size() < MAX_CACHED_CLAIMS) {
+            current.claims.putIfAbsent(claim, parsed);
+        }
+        return parsed;
+    }
+
+    // Identifica la asignación actual de bits. Cambia si se asigna o se libera algún bit
+    public int fingerprint() {
+        return this.layout.fingerprint;
+    }
+
+    // true si los bits de un token emitido con esa asignación significan lo mismo en la actual
+    public boolean accepts(int fingerprint) {
+        return this.layout.accepted.contains(fingerprint);
+    }
+
+    // Bit de un authority, o -1 si no tiene uno asignado
+    public int bitOf(String name) {
+        Integer bit = this.layout.bits.get(name);
+        return bit != null ? bit : -1;
+    }
+
+    // Máscara de los authorities, ignorando los que no tienen bit
+    public long maskOf(Collection<? extends GrantedAuthority> authorities) {
+        Layout current = this.layout;
+        long mask = 0L;
+        for (GrantedAuthority authority : authorities) {
+            Integer bit = current.bits.get(authority.getAuthority());
+            if (bit != null) {
+                mask |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    // Máscara de los authorities, vacía si alguno no se puede representar con un bit
+    public OptionalLong encode(Collection<? extends GrantedAuthority> authorities) {
+        Layout current = this.layout;
+        long mask = 0L;
+        for (GrantedAuthority authority : authorities) {
+            Integer bit = current.bits.get(authority.getAuthority());
+            if (bit == null) {
+                return OptionalLong.empty();
+            }
+            mask |= 1L << bit;
+        }
+        return OptionalLong.of(mask);
+    }
+
+    // Lista inmutable (y compartida) de los authorities de una máscara
+    public List<GrantedAuthority> decode(long mask) {
+        Layout current = this.layout;
+        List<GrantedAuthority> decoded = current.masks.get(mask);
+        if (decoded != null) {
+            return decoded;
+        }
+
+        List<GrantedAuthority> result = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            GrantedAuthority authority = current.byBit[Long.numberOfTrailingZeros(remaining)];
+            if (authority != null) {
+                result.add(authority);
+            }
+        }
+        decoded = List.copyOf(result);
+        if (current.masks.size() < MAX_CACHED_CLAIMS) {
+            current.masks.putIfAbsent(mask, decoded);
+        }
+        return decoded;
+    }
+
+    // Foto inmutable de los authorities y sus bits, junto con las listas ya calculadas
+    private static final class Layout {
+
+        private final Map<String, GrantedAuthority> authorities;
+        private final Map<String, Integer> bits;
+        private final GrantedAuthority[] byBit;
+        private final int fingerprint;
+
+        // Fingerprints compatibles con esta asignación (ningún bit cambió de authority), incluido el propio
+        private Set<Integer> accepted;
+
+        // Authority que tuvo cada bit en alguna de las asignaciones aceptadas
+        private GrantedAuthority[] assignedBefore;
+
+        // Claim "ROLE_ADMIN,CREATE,READ" -> lista ya construida
+        private final Map<String, List<GrantedAuthority>> claims = new ConcurrentHashMap<>();
+
+        // Máscara -> lista ya construida
+        private final Map<Long, List<GrantedAuthority>> masks = new ConcurrentHashMap<>();
+
+        private Layout(Map<String, GrantedAuthority> authorities, Map<String, Integer> bits,
+                       GrantedAuthority[] byBit, int fingerprint) {
+            this.authorities = authorities;
+            this.bits = bits;
+            this.byBit = byBit;
+            this.fingerprint = fingerprint;
+            this.accepted = Set.of(fingerprint);
+            this.assignedBefore = byBit;
+        }
+
+        // Hereda los fingerprints aceptados de la asignación anterior si ningún bit cambió de authority
+        // respecto de todas las asignaciones aceptadas. Un bit liberado (permiso borrado) no rompe
+        // la compatibilidad: decode lo ignora. Se llama antes de publicar el Layout
+        private void acceptFrom(Layout previous) {
+            if (previous.fingerprint == this.fingerprint) {
+                this.accepted = previous.accepted;
+                this.assignedBefore = previous.assignedBefore;
+                return;
+            }
+            GrantedAuthority[] assigned = previous.assignedBefore.clone();
+            for (int bit = 0; bit < MAX_BITS; bit++) {
+                GrantedAuthority before = assigned[bit];
+                GrantedAuthority now = this.byBit[bit];
+                if (before != null && now != null && !before.getAuthority().equals(now.getAuthority())) {
+                    // Un token viejo con este bit significaría otra cosa: solo vale la asignación nueva
+                    return;
+                }
+                if (before == null) {
+                    assigned[bit] = now;
+                }
+            }
+            Set<Integer> accepted = new LinkedHashSet<>(previous.accepted);
+            accepted.add(this.fingerprint);
+            while (accepted.size() > MAX_ACCEPTED_LAYOUTS) {
+                accepted.remove(accepted.iterator().next());
+            }
+            this.accepted = Set.copyOf(accepted);
+            this.assignedBefore = assigned;
+        }
+
+        private static Layout build(List<PermissionEntity> permissions) {
+            Map<String, GrantedAuthority> authorities = new HashMap<>();
+            Map<String, Integer> bits = new HashMap<>();
+            GrantedAuthority[] byBit = new GrantedAuthority[MAX_BITS];
+
+            for (RoleEnum role : RoleEnum.values()) {
+                String name = "ROLE_".concat(role.name());
+                GrantedAuthority authority = new SimpleGrantedAuthority(name);
+                authorities.put(name, authority);
+                if (role.ordinal() < ROLE_BITS) {
+                    bits.put(name, role.ordinal());
+                    byBit[role.ordinal()] = authority;
+                }
+            }
+
+            for (PermissionEntity permission : permissions) {
+                String name = permission.getName();
+                if (authorities.containsKey(name)) {
+                    continue;
+                }
+                GrantedAuthority authority = new SimpleGrantedAuthority(name);
+                authorities.put(name, authority);
+                // El bit sale del id; los permisos cuyo id no cabe en el long se quedan sin bit y viajan como texto
+                Long id = permission.getId();
+                if (id != null && id >= 1 && id <= MAX_BITS - ROLE_BITS) {
+                    int bit = ROLE_BITS + (int) (id - 1);
+                    bits.put(name, bit);
+                    byBit[bit] = authority;
+                }
+            }
+
+            // Solo los pares (nombre, bit) asignados, en orden de bit
+            int fingerprint = 1;
+            for (int bit = 0; bit < MAX_BITS; bit++) {
+                if (byBit[bit] != null) {
+                    fingerprint = 31 * (31 * fingerprint + bit) + byBit[bit].getAuthority().hashCode();
+                }
+            }
+
+            return new Layout(authorities, bits, byBit, fingerprint);
+        }
+
+        // Mismo resultado que AuthorityUtils.commaSeparatedStringToAuthorityList, pero con las instancias canónicas
+        private List<GrantedAuthority> split(String claim) {
+            List<GrantedAuthority> result = new ArrayList<>();
+            int start = 0;
+            while (start <= claim.length()) {
+                int end = claim.indexOf(',', start);
+                if (end < 0) {
+                    end = claim.length();
+                }
+                String name = claim.substring(start, end).trim();
+                if (!name.isEmpty()) {
+                    GrantedAuthority authority = this.authorities.get(name);
+                    result.add(authority != null ? authority : new SimpleGrantedAuthority(name));
+                }
+                start = end + 1;
+            }
+            return List.copyOf(result);
+        }
+    }
+}
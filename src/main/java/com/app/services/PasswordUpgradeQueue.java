@@ -0,0 +1,72 @@
+package com.app.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Cola de hashes de contraseña pendientes de actualizar en la base de datos.
+ * Cuando un usuario inicia sesión con un hash de costo viejo se genera el hash nuevo, pero el UPDATE
+ * no se hace en el login: se encola y se escribe en lote cada cierto tiempo, en una sola transacción JDBC.
+ * Si el mismo usuario entra varias veces antes del flush, solo se guarda el último hash.
+ */
+@Service
+public class PasswordUpgradeQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordUpgradeQueue.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // username -> hash viejo y hash nuevo
+    private final Map<String, PendingUpgrade> pending = new ConcurrentHashMap<>();
+
+    public void enqueue(String username, String oldHash, String newHash) {
+        this.pending.merge(username, new PendingUpgrade(username, oldHash, newHash),
+                // Se conserva el hash viejo original, que es el que está en la base de datos
+                (previous, next) -> new PendingUpgrade(username, previous.oldHash(), next.newHash()));
+    }
+
+    public int size() {
+        return this.pending.size();
+    }
+
+    // Escribe todos los hashes pendientes en un batch JDBC
+    @Scheduled(fixedDelayString = "${security.password.upgrade.flush-interval:5s}")
+    @PreDestroy
+    public void flush() {
+        if (this.pending.isEmpty()) {
+            return;
+        }
+
+        List<PendingUpgrade> batch = new ArrayList<>();
+        for (String username : List.copyOf(this.pending.keySet())) {
+            PendingUpgrade upgrade = this.pending.remove(username);
+            if (upgrade != null) {
+                batch.add(upgrade);
+            }
+        }
+
+        // Solo se actualiza si el hash no cambió mientras tanto (por ejemplo, un cambio de contraseña)
+        this.jdbcTemplate.batchUpdate("update users set password = ? where username = ? and password = ?",
+                batch, batch.size(), (statement, upgrade) -> {
+                    statement.setString(1, upgrade.newHash());
+                    statement.setString(2, upgrade.username());
+                    statement.setString(3, upgrade.oldHash());
+                });
+
+        log.debug("Upgraded {} password hashes", batch.size());
+    }
+
+    private record PendingUpgrade(String username, String oldHash, String newHash) {
+    }
+}
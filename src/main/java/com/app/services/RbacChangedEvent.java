@@ -0,0 +1,12 @@
+package com.app.services;
+
+import org.springframework.context.ApplicationEvent;
+
+// Evento que se publica cuando cambian los roles o los permisos en la base de datos
+// Los componentes que guardan copias en memoria de esos datos lo escuchan para refrescarse
+public class RbacChangedEvent extends ApplicationEvent {
+
+    public RbacChangedEvent(Object source) {
+        super(source);
+    }
+}
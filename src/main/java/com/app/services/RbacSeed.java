@@ -0,0 +1,21 @@
+package com.app.services;
+
+import com.app.entities.RoleEnum;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Estado deseado de roles, permisos y usuarios iniciales (seed/rbac.json).
+ * - permissions: en el orden en que se crean (ese orden define sus bits en AuthorityRegistry)
+ * - roles: permisos de cada rol; la base de datos se ajusta para que coincidan exactamente
+ * - users: usuarios iniciales; solo se crean si no existen, nunca se modifican
+ */
+public record RbacSeed(List<String> permissions,
+                       Map<RoleEnum, List<String>> roles,
+                       List<SeedUser> users) {
+
+    // La contraseña va ya cifrada (BCrypt)
+    public record SeedUser(String username, String password, List<RoleEnum> roles) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.app.services;
+
+import com.app.entities.PermissionEntity;
+import com.app.entities.RoleEntity;
+import com.app.entities.RoleEnum;
+import com.app.entities.UserEntity;
+import com.app.repositories.PermissionEntityRepository;
+import com.app.repositories.RoleEntityRepository;
+import com.app.repositories.UserEntityRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Aplica el seed de RBAC (seed/rbac.json) sobre la base de datos de forma incremental.
+ * En vez de borrar todo y volver a insertarlo en cada arranque, compara el seed con lo que ya existe
+ * y solo escribe la diferencia, en una transacción y con lotes JDBC:
+ * - permisos que faltan -> INSERT
+ * - roles que faltan -> INSERT; roles con otros permisos -> solo las filas de roles_permissions que cambian
+ * - usuarios iniciales que faltan -> INSERT (los existentes no se tocan, ni su contraseña)
+ * Nunca borra roles, permisos ni usuarios que no estén en el seed.
+ * Aplicarlo dos veces seguidas no hace ninguna escritura la segunda vez.
+ */
+@Service
+public class RbacSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(RbacSeeder.class);
+
+    @Autowired
+    private PermissionEntityRepository permissionRepository;
+
+    @Autowired
+    private RoleEntityRepository roleRepository;
+
+    @Autowired
+    private UserEntityRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Value("${app.seed.location:classpath:seed/rbac.json}")
+    private Resource location;
+
+    @Value("${app.seed.enabled:true}")
+    private boolean enabled;
+
+    // false: se aplica al arrancar, antes de aceptar peticiones
+    // true: se aplica en segundo plano después de ApplicationReadyEvent (el arranque no lo espera)
+    @Value("${app.seed.async:false}")
+    private boolean async;
+
+    // Lo llama el CommandLineRunner de SpringSecurityAppApplication al arrancar
+    public void seedOnStartup() {
+        if (this.enabled && !this.async) {
+            seed();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedAfterReady() {
+        if (this.enabled && this.async) {
+            this.applicationTaskExecutor.submitCompletable(this::seed)
+                    .exceptionally(exception -> {
+                        log.error("RBAC seed failed", exception);
+                        return null;
+                    });
+        }
+    }
+
+    // Aplica el seed y retorna la cantidad de filas (entidades o relaciones) que cambiaron
+    public int seed() {
+        RbacSeed seed = read();
+        long start = System.nanoTime();
+
+        Integer changes = this.transactionTemplate.execute(status -> apply(seed));
+
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("app.seed.duration")
+                .description("Time to diff and apply the RBAC seed")
+                .tag("mode", this.async ? "async" : "startup")
+                .tag("changed", String.valueOf(changes > 0))
+                .register(this.meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("RBAC seed applied: {} changes in {} ms", changes, TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+        // Solo se refrescan las copias en memoria si algo cambió (y después del commit)
+        if (changes > 0) {
+            this.eventPublisher.publishEvent(new RbacChangedEvent(this));
+        }
+        return changes;
+    }
+
+    private int apply(RbacSeed seed) {
+        int changes = 0;
+
+        // Permisos
+        Map<String, PermissionEntity> permissions = new HashMap<>();
+        permissionRepository.findAll().forEach(permission -> permissions.put(permission.getName(), permission));
+
+        List<PermissionEntity> newPermissions = new ArrayList<>();
+        for (String name : seed.permissions()) {
+            if (!permissions.containsKey(name)) {
+                PermissionEntity permission = PermissionEntity.builder().name(name).build();
+                permissions.put(name, permission);
+                newPermissions.add(permission);
+            }
+        }
+        permissionRepository.saveAll(newPermissions);
+        changes += newPermissions.size();
+
+        // Roles y sus permisos
+        Map<RoleEnum, RoleEntity> roles = new EnumMap<>(RoleEnum.class);
+        roleRepository.findAllWithPermissions().forEach(role -> roles.put(role.getRoleEnum(), role));
+
+        List<RoleEntity> newRoles = new ArrayList<>();
+        for (Map.Entry<RoleEnum, List<String>> entry : seed.roles().entrySet()) {
+            Set<String> wanted = new LinkedHashSet<>(entry.getValue());
+            RoleEntity role = roles.get(entry.getKey());
+
+            if (role == null) {
+                Set<PermissionEntity> permissionList = new HashSet<>();
+                wanted.forEach(name -> permissionList.add(permissionOf(permissions, name)));
+                role = RoleEntity.builder().roleEnum(entry.getKey()).permissionList(permissionList).build();
+                roles.put(entry.getKey(), role);
+                newRoles.add(role);
+                changes += 1 + permissionList.size();
+                continue;
+            }
+
+            // El rol ya existe (y está administrado por JPA): se quitan y agregan solo los permisos que difieren
+            Set<PermissionEntity> permissionList = role.getPermissionList();
+            Set<String> current = new HashSet<>();
+            int before = permissionList.size();
+            permissionList.removeIf(permission -> !wanted.contains(permission.getName()));
+            changes += before - permissionList.size();
+            permissionList.forEach(permission -> current.add(permission.getName()));
+            for (String name : wanted) {
+                if (!current.contains(name)) {
+                    permissionList.add(permissionOf(permissions, name));
+                    changes++;
+                }
+            }
+        }
+        roleRepository.saveAll(newRoles);
+
+        // Usuarios iniciales: una consulta para saber cuáles ya existen
+        Set<String> usernames = new HashSet<>();
+        seed.users().forEach(user -> usernames.add(user.username()));
+        Set<String> existing = usernames.isEmpty() ? Set.of() : userRepository.findExistingUsernames(usernames);
+
+        List<UserEntity> newUsers = new ArrayList<>();
+        for (RbacSeed.SeedUser user : seed.users()) {
+            if (existing.contains(user.username())) {
+                continue;
+            }
+            Set<RoleEntity> userRoles = new HashSet<>();
+            for (RoleEnum roleEnum : user.roles()) {
+                RoleEntity role = roles.get(roleEnum);
+                if (role == null) {
+                    throw new IllegalStateException("The seed user " + user.username() + " has the unknown role " + roleEnum);
+                }
+                userRoles.add(role);
+            }
+            newUsers.add(UserEntity.builder()
+                    .username(user.username())
+                    .password(user.password())
+                    .isEnabled(true)
+                    .accountNoExpired(true)
+                    .accountNoLocked(true)
+                    .credentialNoExpired(true)
+                    .roles(userRoles)
+                    .build());
+        }
+        userRepository.saveAll(newUsers);
+        changes += newUsers.size();
+
+        return changes;
+    }
+
+    private static PermissionEntity permissionOf(Map<String, PermissionEntity> permissions, String name) {
+        PermissionEntity permission = permissions.get(name);
+        if (permission == null) {
+            throw new IllegalStateException("The seed references the unknown permission " + name);
+        }
+        return permission;
+    }
+
+    private RbacSeed read() {
+        try (InputStream in = this.location.getInputStream()) {
+            return this.objectMapper.readValue(in, RbacSeed.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read the RBAC seed " + this.location, e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.app.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/*
+ * Contraparte reactiva de UserDetailService para el modo WebFlux.
+ * La consulta del usuario sigue siendo JPA (bloqueante), así que se ejecuta en el scheduler
+ * acotado "authBlockingScheduler" y nunca en los hilos del event loop.
+ * Reutiliza UserDetailService, con su cache de usuarios y la foto de roles en memoria.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserDetailService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+
+    @Autowired
+    private UserDetailService userDetailService;
+
+    @Autowired
+    private UserDetailsCache userCache;
+
+    @Autowired
+    @Qualifier("authBlockingScheduler")
+    private Scheduler authBlockingScheduler;
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return Mono.fromCallable(() -> {
+                    UserDetails cached = userCache.getUserFromCache(username);
+                    if (cached != null) {
+                        return cached;
+                    }
+                    UserDetails loaded = userDetailService.loadUserByUsername(username);
+                    userCache.putUserInCache(loaded);
+                    return loaded;
+                })
+                .subscribeOn(authBlockingScheduler)
+                // Un usuario que no existe es un Mono vacío (la autenticación responde credenciales inválidas)
+                .onErrorResume(UsernameNotFoundException.class, exception -> Mono.empty());
+    }
+
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        // Solo encola el UPDATE y actualiza la cache, no bloquea
+        return Mono.fromSupplier(() -> userDetailService.updatePassword(user, newPassword));
+    }
+}
@@ -0,0 +1,123 @@
+package com.app.services;
+
+import com.app.entities.RefreshTokenEntity;
+import com.app.repositories.RefreshTokenEntityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Function;
+
+/*
+ * Refresh tokens opacos, para renovar el token de acceso sin volver a verificar la contraseña (BCrypt).
+ * - El token son 32 bytes aleatorios; en la base de datos solo se guarda su SHA-256
+ * - Cada uso lo cambia por uno nuevo de la misma familia (rotación)
+ * - Si se presenta un token ya usado, alguien más lo tiene: se revoca toda la familia
+ *   y el usuario tiene que volver a iniciar sesión
+ * - El id de la familia va en el token de acceso (claim "sid"): el logout revoca la familia completa
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenEntityRepository refreshTokenRepository;
+
+    @Value("${security.jwt.refresh-token.ttl:14d}")
+    private Duration ttl;
+
+    // Id de familia nuevo, para un login. Se pone en el token de acceso antes de emitir el refresh token
+    public String newFamily() {
+        return UUID.randomUUID().toString();
+    }
+
+    // Primer token de una familia (login o alta)
+    @Transactional
+    public String issue(String username, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshTokenEntity.builder()
+                .tokenHash(hash(token))
+                .username(username)
+                .familyId(familyId)
+                .expiresAt(Instant.now().plus(ttl))
+                .build());
+        return token;
+    }
+
+    // Cambia un refresh token por uno nuevo de la misma familia
+    // loadActiveUser: carga el usuario y revisa que la cuenta siga activa. Se llama antes de marcar el token
+    // como usado, así una cuenta deshabilitada no gasta el token ni deja uno nuevo guardado
+    // noRollbackFor: la revocación de la familia tiene que quedar guardada aunque se rechace la petición
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String token, Function<String, UserDetails> loadActiveUser) {
+        RefreshTokenEntity current = refreshTokenRepository.findByTokenHash(hash(token))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        if (current.isRevoked() || current.getExpiresAt().isBefore(Instant.now())) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+
+        UserDetails user = loadActiveUser.apply(current.getUsername());
+
+        if (refreshTokenRepository.markUsed(current.getTokenHash()) == 0) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            log.warn("Refresh token reuse detected for user {}, family {} revoked", current.getUsername(), current.getFamilyId());
+            throw new BadCredentialsException("Refresh token reuse detected");
+        }
+
+        return new Rotation(user, issue(current.getUsername(), current.getFamilyId()), current.getFamilyId());
+    }
+
+    // Revoca todos los refresh tokens de una familia (logout)
+    @Transactional
+    public void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+    }
+
+    // Borra los tokens expirados
+    @Scheduled(fixedDelayString = "${security.jwt.refresh-token.purge-interval:1h}")
+    @Transactional
+    public void purge() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    // El token tiene 256 bits aleatorios: un SHA-256 basta, no hace falta un hash lento como BCrypt
+    private static String hash(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Usuario dueño del token (ya revisado), el refresh token nuevo y su familia
+    public record Rotation(UserDetails user, String refreshToken, String familyId) {
+    }
+}
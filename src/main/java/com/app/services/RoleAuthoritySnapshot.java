@@ -0,0 +1,124 @@
+package com.app.services;
+
+import com.app.entities.PermissionEntity;
+import com.app.entities.RoleEntity;
+import com.app.entities.RoleEnum;
+import com.app.repositories.RoleEntityRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Foto en memoria de los authorities de cada rol: "ROLE_<rol>" más los permisos del rol.
+ * Los roles y sus permisos casi nunca cambian, así que el login solo necesita saber qué roles
+ * tiene el usuario; la lista de authorities ya está construida aquí.
+ * La foto se construye al arrancar y se reemplaza completa (copy-on-write) cuando se publica
+ * un RbacChangedEvent, así que las lecturas no usan locks.
+ */
+@Service
+public class RoleAuthoritySnapshot {
+
+    @Autowired
+    private RoleEntityRepository roleRepository;
+
+    @Autowired
+    private AuthorityRegistry authorityRegistry;
+
+    private volatile Snapshot snapshot;
+
+    // Se ejecuta después de refrescar el AuthorityRegistry, para usar sus instancias compartidas
+    @EventListener({ApplicationReadyEvent.class, RbacChangedEvent.class})
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void refresh() {
+        Map<RoleEnum, List<GrantedAuthority>> byRole = new EnumMap<>(RoleEnum.class);
+        for (RoleEntity role : roleRepository.findAllWithPermissions()) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            authorities.add(authorityRegistry.authority("ROLE_".concat(role.getRoleEnum().name())));
+            if (role.getPermissionList() != null) {
+                role.getPermissionList().stream()
+                        .map(PermissionEntity::getName)
+                        .sorted()
+                        .forEach(name -> authorities.add(authorityRegistry.authority(name)));
+            }
+            byRole.put(role.getRoleEnum(), List.copyOf(authorities));
+        }
+        this.snapshot = new Snapshot(byRole);
+    }
+
+    // Authorities de un rol (el rol y sus permisos)
+    public List<GrantedAuthority> authoritiesOf(RoleEnum role) {
+        List<GrantedAuthority> authorities = current().byRole.get(role);
+        return authorities != null ? authorities : List.of(authorityRegistry.authority("ROLE_".concat(role.name())));
+    }
+
+    // Authorities de un conjunto de roles: primero los roles y luego los permisos, sin repetir
+    public List<GrantedAuthority> authoritiesOf(Collection<RoleEnum> roles) {
+        Snapshot current = current();
+
+        long key = 0L;
+        for (RoleEnum role : roles) {
+            key |= 1L << role.ordinal();
+        }
+
+        List<GrantedAuthority> merged = current.byRoles.get(key);
+        if (merged != null) {
+            return merged;
+        }
+
+        Set<GrantedAuthority> roleAuthorities = new LinkedHashSet<>();
+        Set<GrantedAuthority> permissions = new LinkedHashSet<>();
+        for (RoleEnum role : RoleEnum.values()) {
+            if ((key & (1L << role.ordinal())) == 0) {
+                continue;
+            }
+            List<GrantedAuthority> authorities = authoritiesOf(role);
+            roleAuthorities.add(authorities.get(0));
+            permissions.addAll(authorities.subList(1, authorities.size()));
+        }
+        roleAuthorities.addAll(permissions);
+
+        merged = List.copyOf(roleAuthorities);
+        current.byRoles.putIfAbsent(key, merged);
+        return merged;
+    }
+
+    // Si llega un login antes de ApplicationReadyEvent, se construye la foto en ese momento
+    private Snapshot current() {
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (this.snapshot == null) {
+                    refresh();
+                }
+                current = this.snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+
+        private final Map<RoleEnum, List<GrantedAuthority>> byRole;
+
+        // Combinación de roles (un bit por ordinal de RoleEnum) -> lista ya construida
+        // Como mucho hay 2^n combinaciones, con n el número de roles
+        private final Map<Long, List<GrantedAuthority>> byRoles = new ConcurrentHashMap<>();
+
+        private Snapshot(Map<RoleEnum, List<GrantedAuthority>> byRole) {
+            this.byRole = byRole;
+        }
+    }
+}
@@ -1,27 +1,38 @@
 package com.app.services;
 
+import com.app.config.authorization.AuthorityBitsAuthenticationToken;
+import com.app.config.filter.RevokedTokenStore;
+import com.app.config.metrics.AuthMetrics;
+import com.app.config.password.PasswordHashingRejectedException;
 import com.app.controllers.dto.AuthCreateUserRequest;
 import com.app.controllers.dto.AuthLoginRequest;
+import com.app.controllers.dto.AuthRefreshRequest;
 import com.app.controllers.dto.AuthResponse;
 import com.app.entities.RoleEntity;
+import com.app.entities.RoleEnum;
 import com.app.entities.UserEntity;
 import com.app.repositories.RoleEntityRepository;
 import com.app.repositories.UserEntityRepository;
+import com.app.repositories.projections.UserAuthorityRow;
 import com.app.utils.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -33,7 +44,7 @@ import java.util.stream.Collectors;
 *  que luego Spring usa para permitir o denegar el acceso.*/
 
 @Service // Marca esta clase como un componente de servicio en Spring (se detecta automáticamente como bean)
-public class UserDetailService implements UserDetailsService {
+public class UserDetailService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -47,6 +58,28 @@ public class UserDetailService implements UserDetailsService {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private RoleAuthoritySnapshot roleAuthoritySnapshot;
+
+    @Autowired
+    private UserDetailsCache userCache;
+
+    @Autowired
+    private PasswordUpgradeQueue passwordUpgradeQueue;
+
+    @Autowired
+    private RevokedTokenStore revokedTokenStore;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Tiempos de la consulta del usuario y de BCrypt, y resultados de los logins
+    @Autowired
+    private AuthMetrics authMetrics;
+
     /**
      * Este método se ejecuta automáticamente por Spring Security cuando alguien intenta iniciar sesión.
      * Se encarga de buscar el usuario por su nombre de usuario y construir un objeto UserDetails.
@@ -54,25 +87,35 @@ public class UserDetailService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        // Busca el usuario en la base de datos por su nombre de usuario.
+        // Si hace poco buscamos este usuario y no existía, no volvemos a consultar la base de datos
+        if (userCache.isKnownMissing(username)) {
+            throw new UsernameNotFoundException("El usuario " + username + " no existe");
+        }
+
+        // Busca el usuario y sus roles en la base de datos en una sola consulta.
+        // Cada fila trae el usuario con uno de sus roles (modelo de lectura plano, no entidades).
+        long start = authMetrics.start();
+        List<UserAuthorityRow> rows = userRepository.findAuthorityRowsByUsername(username);
+        authMetrics.userLookup(start, !rows.isEmpty());
+
         // Si no lo encuentra, lanza una excepción específica de Spring Security.
-        UserEntity user = userRepository.findUserEntityByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("El usuario " + username + " no existe"));
+        if (rows.isEmpty()) {
+            userCache.putMissingUser(username);
+            throw new UsernameNotFoundException("El usuario " + username + " no existe");
+        }
 
-        // Lista donde se almacenarán las autoridades (roles y permisos) del usuario
-        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+        UserAuthorityRow user = rows.get(0);
 
-        // Agrega los roles del usuario como autoridades, con prefijo "ROLE_" (requisito de Spring Security)
-        user.getRoles().forEach(role -> {
-            authorities.add(new SimpleGrantedAuthority("ROLE_".concat(role.getRoleEnum().name())));
+        // Roles del usuario
+        Set<RoleEnum> roles = EnumSet.noneOf(RoleEnum.class);
+        rows.forEach(row -> {
+            if (row.getRoleEnum() != null) {
+                roles.add(row.getRoleEnum());
+            }
         });
 
-        // Agrega los permisos asociados a cada rol como autoridades
-        user.getRoles().stream()
-                .flatMap(role -> role.getPermissionList().stream()) // Accede a todos los permisos de todos los roles
-                .forEach(permission -> {
-                    authorities.add(new SimpleGrantedAuthority(permission.getName()));
-                });
+        // Lista de autoridades (roles con prefijo "ROLE_" y permisos de cada rol) ya construida en memoria
+        List<GrantedAuthority> authorities = roleAuthoritySnapshot.authoritiesOf(roles);
 
         // Crea y retorna un objeto User (de Spring Security) con:
         // - nombre de usuario
@@ -101,32 +144,111 @@ public class UserDetailService implements UserDetailsService {
         String password = authLoginRequest.password();
 
         // Se encarga de que la credenciales sean correctas
-        Authentication authentication = this.authenticate(username, password);
+        Authentication authentication;
+        try {
+            authentication = this.authenticate(username, password);
+        } catch (UsernameNotFoundException exception) {
+            authMetrics.login(AuthMetrics.LoginOutcome.UNKNOWN_USER);
+            throw exception;
+        } catch (BadCredentialsException exception) {
+            authMetrics.login(AuthMetrics.LoginOutcome.BAD_CREDENTIALS);
+            throw exception;
+        } catch (PasswordHashingRejectedException exception) {
+            authMetrics.login(AuthMetrics.LoginOutcome.OVERLOADED);
+            throw exception;
+        }
+        authMetrics.login(AuthMetrics.LoginOutcome.SUCCESS);
 
         // Se agrega al Security Context Holder
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        String accessToken = jwtUtils.createToken(authentication);
+        // Con el refresh token se renueva el token de acceso sin volver a pasar por BCrypt
+        // El token de acceso lleva la familia del refresh token, para revocarla en el logout
+        String sessionId = refreshTokenService.newFamily();
+        String accessToken = jwtUtils.createToken(authentication, sessionId);
+        String refreshToken = refreshTokenService.issue(username, sessionId);
 
-        AuthResponse authResponse = new AuthResponse(username, "User loged successfuly", accessToken, true);
+        AuthResponse authResponse = new AuthResponse(username, "User loged successfuly", accessToken, true, refreshToken);
 
         return authResponse;
 
     }
 
+    // Cambia un refresh token por un token de acceso nuevo (y un refresh token nuevo)
+    // No verifica la contraseña: solo revisa que la cuenta siga activa y toma sus authorities actuales
+    public AuthResponse refreshToken(AuthRefreshRequest authRefreshRequest) {
+        // La cuenta se revisa antes de gastar el refresh token (ver RefreshTokenService.rotate)
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(authRefreshRequest.refreshToken(), username -> {
+            UserDetails userDetails = userCache.getUserFromCache(username);
+            if (userDetails == null) {
+                userDetails = this.loadUserByUsername(username);
+            }
+
+            // Cuenta deshabilitada, bloqueada o expirada: no se renueva
+            new AccountStatusUserDetailsChecker().check(userDetails);
+            return userDetails;
+        });
+
+        String username = rotation.user().getUsername();
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                username, null, rotation.user().getAuthorities());
+
+        String accessToken = jwtUtils.createToken(authentication, rotation.familyId());
+
+        return new AuthResponse(username, "Token refreshed successfully", accessToken, true, rotation.refreshToken());
+    }
+
+    // Cierra la sesión: revoca el token de acceso de la petición hasta su "exp"
+    // y la familia de refresh tokens del mismo login, así ninguno sirve para emitir tokens nuevos
+    public AuthResponse logoutUser(Authentication authentication) {
+        if (!(authentication instanceof AuthorityBitsAuthenticationToken accessToken) || accessToken.getTokenId() == null) {
+            return new AuthResponse(null, "Only access tokens can be revoked", null, false);
+        }
+
+        revokedTokenStore.revoke(accessToken.getTokenId(), accessToken.getExpiresAtMillis());
+        if (accessToken.getSessionId() != null) {
+            refreshTokenService.revokeFamily(accessToken.getSessionId());
+        }
+
+        SecurityContextHolder.clearContext();
+
+        return new AuthResponse(accessToken.getName(), "User logged out successfully", null, true);
+    }
+
     // Metodo que nos permite buscar el usaurio en la base de datos y verificar de que las credenciales sean correctas
     public Authentication authenticate(String username, String password){
-        // Buscamos el usuario en la base de datos
-        UserDetails userDetails = this.loadUserByUsername(username);
+        // Buscamos el usuario primero en la cache y luego en la base de datos
+        UserDetails userDetails = userCache.getUserFromCache(username);
+        boolean cached = userDetails != null;
+
+        if (!cached) {
+            userDetails = this.loadUserByUsername(username);
+        }
 
         if (userDetails == null){
             throw new BadCredentialsException("Invalid username or password");
         }
 
         // Si son diferentes, votamos un error
-        if (!passwordEncoder.matches(password, userDetails.getPassword())){
-            throw new BadCredentialsException("Invalid password");
+        if (!matches(password, userDetails.getPassword())){
+            // La contraseña pudo cambiar desde que se cacheó el usuario: se reintenta con la base de datos
+            if (!cached) {
+                throw new BadCredentialsException("Invalid password");
+            }
+            userCache.removeUserFromCache(username);
+            userDetails = this.loadUserByUsername(username);
+            if (!matches(password, userDetails.getPassword())){
+                throw new BadCredentialsException("Invalid password");
+            }
         }
+
+        // Si el hash usa un costo o algoritmo viejo, se genera uno nuevo (el UPDATE se hace en lote)
+        if (passwordEncoder.upgradeEncoding(userDetails.getPassword())) {
+            userDetails = this.updatePassword(userDetails, passwordEncoder.encode(password));
+        } else {
+            userCache.putUserInCache(userDetails);
+        }
+
         // Objeto de autenticacion
         return new UsernamePasswordAuthenticationToken(
                 username,
@@ -134,6 +256,30 @@ public class UserDetailService implements UserDetailsService {
                 userDetails.getAuthorities());
     }
 
+    // Compara la contraseña contra el hash (BCrypt), midiendo cuánto tarda
+    private boolean matches(String password, String encodedPassword) {
+        long start = authMetrics.start();
+        boolean matched = passwordEncoder.matches(password, encodedPassword);
+        authMetrics.passwordChecked(start, matched);
+        return matched;
+    }
+
+    /**
+     * Actualiza el hash de la contraseña de un usuario (por ejemplo, a un costo de BCrypt mayor).
+     * Lo llama DaoAuthenticationProvider después de un login exitoso, y también authenticate().
+     * No escribe en la base de datos en el momento: encola el UPDATE para el siguiente lote.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        passwordUpgradeQueue.enqueue(user.getUsername(), user.getPassword(), newPassword);
+
+        UserDetails updated = User.withUserDetails(user).password(newPassword).build();
+
+        // La cache queda con el hash nuevo, así no se vuelve a generar en el siguiente login
+        userCache.putUserInCache(updated);
+        return updated;
+    }
+
     // Método que nos permite crear un usuario en el sistema
     public AuthResponse createUser(AuthCreateUserRequest authCreateUserRequest){
 
@@ -146,50 +292,54 @@ public class UserDetailService implements UserDetailsService {
         // Necesitamos extraer la lista de roles
         List<String> roleRequest = authCreateUserRequest.roleRequest().roleListName();
 
-        // Me trae los roles que coincidan con los que el usuario va a  tener
-        Set<RoleEntity> roleEntitySet = roleEntityRepository.findRoleEntitiesByRoleEnumIn(roleRequest).stream().collect(Collectors.toSet());
-
-        if (roleEntitySet.isEmpty()) {
-            throw new IllegalArgumentException("The roles specified does not exists.");
-        }
+        // BCrypt corre antes de la transacción, así no retiene una conexión mientras calcula el hash
+        String encodedPassword = passwordEncoder.encode(password);
+
+        // Los roles se buscan y el usuario se guarda en la misma transacción: fuera de ella los roles
+        // quedarían detached y el cascade PERSIST de UserEntity.roles fallaría (sin open-in-view o en WebFlux)
+        UserEntity userCreated = transactionTemplate.execute(status -> {
+            // Me trae los roles que coincidan con los que el usuario va a  tener
+            Set<RoleEntity> roleEntitySet = roleEntityRepository.findRoleEntitiesByRoleEnumIn(roleRequest).stream().collect(Collectors.toSet());
+
+            if (roleEntitySet.isEmpty()) {
+                throw new IllegalArgumentException("The roles specified does not exists.");
+            }
+
+            // Construir el usuario
+            UserEntity userEntity = UserEntity.builder()
+                    .username(username)
+                    .password(encodedPassword)
+                    .roles(roleEntitySet)
+                    .isEnabled(true)
+                    .accountNoLocked(true)
+                    .accountNoExpired(true)
+                    .credentialNoExpired(true)
+                    .build();
+
+            // Guardamos en la base de datos
+            return userRepository.save(userEntity);
+        });
 
-        // Construir el usuario
-        UserEntity userEntity = UserEntity.builder()
-                .username(username)
-                .password(passwordEncoder.encode(password))
-                .roles(roleEntitySet)
-                .isEnabled(true)
-                .accountNoLocked(true)
-                .accountNoExpired(true)
-                .credentialNoExpired(true)
-                .build();
-        
-        // Guardamos en la base de datos
-        UserEntity userCreated = userRepository.save(userEntity);
+        // El usuario pudo quedar en la cache como "no existe"
+        userCache.removeUserFromCache(userCreated.getUsername());
         
         // Generamos el token
 
-        // Lista de los permisos que va a tener
-        List<SimpleGrantedAuthority> authorityList = new ArrayList<>();
-
-        // Obtenemos cada rol y los metemos a la lista de arriba
-        userCreated.getRoles().forEach(role -> authorityList.add(new SimpleGrantedAuthority("ROLE_".concat(role.getRoleEnum().name()))));
-
-        // Obtenemos cada uno de los permisos de cada rol y tambien los añadimos al array de arriba
-        userCreated.getRoles()
-                .stream()
-                .flatMap(role -> role.getPermissionList().stream())
-                .forEach(permission -> authorityList.add(new SimpleGrantedAuthority(permission.getName())));
-
+        // Lista de los permisos que va a tener, tomada de la foto en memoria de los roles
+        List<GrantedAuthority> authorityList = roleAuthoritySnapshot.authoritiesOf(
+                userCreated.getRoles().stream().map(RoleEntity::getRoleEnum).toList());
 
         SecurityContext context = SecurityContextHolder.getContext();
 
         // Objeto de autenticacion
         Authentication authentication = new UsernamePasswordAuthenticationToken(userCreated.getUsername(), userCreated.getPassword(), authorityList);
 
-        String accessToken = jwtUtils.createToken(authentication);
+        String sessionId = refreshTokenService.newFamily();
+        String accessToken = jwtUtils.createToken(authentication, sessionId);
+
+        String refreshToken = refreshTokenService.issue(userCreated.getUsername(), sessionId);
 
-        AuthResponse authResponse = new AuthResponse(userCreated.getUsername(), "User created successfully", accessToken, true);
+        AuthResponse authResponse = new AuthResponse(userCreated.getUsername(), "User created successfully", accessToken, true, refreshToken);
 
         return authResponse;
     }
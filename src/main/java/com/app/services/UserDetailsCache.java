@@ -0,0 +1,95 @@
+package com.app.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/*
+ * Cache de UserDetails delante de UserDetailService, para no ir a MySQL en cada login.
+ * - Acotada en tamaño y con expiración por tiempo (TTL)
+ * - También recuerda por poco tiempo los usuarios que no existen, así una ráfaga de logins
+ *   con usuarios inventados no llega a la base de datos
+ * - Se invalida al crear un usuario, al cambiar sus datos y cuando cambian roles o permisos
+ * Se usa tanto en DaoAuthenticationProvider (SecurityConfig) como en UserDetailService.authenticate.
+ */
+@Service
+public class UserDetailsCache implements UserCache {
+
+    private final Cache<String, UserDetails> users;
+
+    private final Cache<String, Boolean> missingUsers;
+
+    public UserDetailsCache(@Value("${security.user-cache.max-size:10000}") long maxSize,
+                            @Value("${security.user-cache.ttl:5m}") Duration ttl,
+                            @Value("${security.user-cache.missing-ttl:30s}") Duration missingTtl,
+                            MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        this.missingUsers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(missingTtl)
+                .recordStats()
+                .build();
+
+        // Hit ratio y desalojos en /actuator/metrics (cache.gets, cache.evictions, cache.size)
+        CaffeineCacheMetrics.monitor(meterRegistry, this.users, "users");
+        CaffeineCacheMetrics.monitor(meterRegistry, this.missingUsers, "users.missing");
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails cached = this.users.getIfPresent(username);
+        // Se entrega una copia: Spring borra la contraseña del usuario autenticado (eraseCredentials)
+        return cached != null ? copyOf(cached) : null;
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        this.users.put(user.getUsername(), copyOf(user));
+        this.missingUsers.invalidate(user.getUsername());
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        this.users.invalidate(username);
+        this.missingUsers.invalidate(username);
+    }
+
+    // Indica si hace poco se buscó este usuario y no existía
+    public boolean isKnownMissing(String username) {
+        return this.missingUsers.getIfPresent(username) != null;
+    }
+
+    public void putMissingUser(String username) {
+        this.missingUsers.put(username, Boolean.TRUE);
+    }
+
+    // Los authorities cacheados dependen de los roles y permisos
+    @EventListener(RbacChangedEvent.class)
+    public void invalidateAll() {
+        this.users.invalidateAll();
+        this.missingUsers.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return this.users.stats();
+    }
+
+    private static UserDetails copyOf(UserDetails user) {
+        return User.withUserDetails(user).build();
+    }
+}
@@ -0,0 +1,270 @@
+package com.app.services;
+
+import com.app.config.password.BoundedPasswordEncoder;
+import com.app.controllers.dto.AuthBatchUserResponse;
+import com.app.controllers.dto.AuthCreateUserRequest;
+import com.app.entities.RoleEntity;
+import com.app.entities.UserEntity;
+import com.app.repositories.RoleEntityRepository;
+import com.app.repositories.UserEntityRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Alta masiva de usuarios (por ejemplo, la carga inicial desde el sistema de RRHH).
+ * - Lee el cuerpo NDJSON línea por línea, sin cargarlo completo en memoria
+ * - Resuelve los roles una sola vez (nombre -> id) y los enlaza con referencias, sin consultas por fila
+ * - Genera los hashes de un bloque en paralelo en el pool de hashing (BoundedPasswordEncoder)
+ * - Inserta cada bloque en una transacción, en lotes JDBC (hibernate.jdbc.batch_size).
+ *   Si el bloque falla se reintenta fila por fila, así una fila mala no oculta el resultado de las demás
+ * - Escribe el resultado de cada fila apenas termina su bloque, así la respuesta también es un stream
+ * A diferencia de /auth/sign-up no genera tokens: los usuarios inician sesión después.
+ */
+@Service
+public class UserProvisioningService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserProvisioningService.class);
+
+    private static final byte[] NEW_LINE = {'\n'};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RoleEntityRepository roleEntityRepository;
+
+    @Autowired
+    private UserEntityRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserDetailsCache userCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    // Filas por transacción. Conviene que sea múltiplo de hibernate.jdbc.batch_size
+    @Value("${app.provisioning.chunk-size:500}")
+    private int chunkSize;
+
+    // Procesa el NDJSON de entrada y escribe una línea NDJSON de resultado por cada fila
+    public void provision(InputStream body, OutputStream out) throws IOException {
+        // Los roles se resuelven una sola vez para todo el lote
+        Map<String, Long> roleIds = new HashMap<>();
+        for (RoleEntity role : roleEntityRepository.findAll()) {
+            roleIds.put(role.getRoleEnum().name(), role.getId());
+        }
+
+        ObjectReader reader = objectMapper.readerFor(AuthCreateUserRequest.class);
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(reader, lineNumber, line, roleIds));
+            if (chunk.size() == chunkSize) {
+                write(out, process(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(out, process(chunk));
+        }
+    }
+
+    // Convierte una línea en una fila, o en una fila rechazada si no es válida
+    private Row parse(ObjectReader reader, long lineNumber, String line, Map<String, Long> roleIds) {
+        AuthCreateUserRequest request;
+        try {
+            request = reader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return Row.rejected(lineNumber, null, "Malformed JSON");
+        }
+
+        Set<ConstraintViolation<AuthCreateUserRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<AuthCreateUserRequest> violation = violations.iterator().next();
+            return Row.rejected(lineNumber, request.username(), violation.getPropertyPath() + " " + violation.getMessage());
+        }
+
+        if (request.roleRequest() == null || request.roleRequest().roleListName() == null
+                || request.roleRequest().roleListName().isEmpty()) {
+            return Row.rejected(lineNumber, request.username(), "The user must have at least one role");
+        }
+
+        Set<Long> roles = new LinkedHashSet<>();
+        for (String roleName : request.roleRequest().roleListName()) {
+            Long roleId = roleIds.get(roleName);
+            if (roleId == null) {
+                return Row.rejected(lineNumber, request.username(), "The role " + roleName + " does not exists");
+            }
+            roles.add(roleId);
+        }
+        return new Row(lineNumber, request.username(), request, roles, null);
+    }
+
+    // Procesa un bloque: descarta duplicados, genera los hashes e inserta en una transacción
+    private List<AuthBatchUserResponse> process(List<Row> chunk) {
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        Set<String> usernames = new HashSet<>();
+        for (Row row : chunk) {
+            if (row.error() == null) {
+                usernames.add(row.username());
+                accepted.add(row);
+            }
+        }
+
+        // Una consulta por bloque para los usuarios que ya existen
+        Set<String> existing = usernames.isEmpty() ? Set.of() : userRepository.findExistingUsernames(usernames);
+        Map<Long, String> errors = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        accepted.removeIf(row -> {
+            String username = row.username();
+            if (existing.contains(username) || !seen.add(username)) {
+                errors.put(row.line(), "The user " + username + " already exists");
+                return true;
+            }
+            return false;
+        });
+
+        if (!accepted.isEmpty()) {
+            List<String> hashes = null;
+            try {
+                hashes = encodeAll(accepted);
+            } catch (RuntimeException e) {
+                // Sin hashes no se puede guardar ninguna fila del bloque
+                log.warn("Hashing {} users starting at line {} failed", accepted.size(), accepted.get(0).line(), e);
+                accepted.forEach(row -> errors.put(row.line(), "The batch could not be saved"));
+            }
+            if (hashes != null) {
+                save(accepted, hashes, errors);
+            }
+        }
+
+        List<AuthBatchUserResponse> results = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            String error = row.error() != null ? row.error() : errors.get(row.line());
+            results.add(error == null
+                    ? new AuthBatchUserResponse(row.line(), row.username(), "User created successfully", true)
+                    : new AuthBatchUserResponse(row.line(), row.username(), error, false));
+        }
+        return results;
+    }
+
+    // Inserta el bloque en una transacción. Si falla (por ejemplo, un usuario creado en paralelo),
+    // se reintenta fila por fila para que cada una tenga su propio resultado y no arrastre a las demás
+    private void save(List<Row> rows, List<String> hashes, Map<Long, String> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(rows, hashes));
+            rows.forEach(row -> userCache.removeUserFromCache(row.username()));
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} users starting at line {} failed, retrying row by row", rows.size(), rows.get(0).line(), e);
+        }
+
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            String hash = hashes.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.of(row), List.of(hash)));
+                userCache.removeUserFromCache(row.username());
+            } catch (RuntimeException e) {
+                // Si el usuario ya existe es el caso común (creado entre la consulta y el INSERT)
+                boolean exists = !userRepository.findExistingUsernames(Set.of(row.username())).isEmpty();
+                errors.put(row.line(), exists
+                        ? "The user " + row.username() + " already exists"
+                        : "The user could not be saved");
+                if (!exists) {
+                    log.warn("User at line {} could not be saved", row.line(), e);
+                }
+            }
+        }
+    }
+
+    // Los hashes de un bloque se generan en paralelo, usando todos los hilos del pool de hashing
+    private List<String> encodeAll(List<Row> rows) {
+        List<String> passwords = rows.stream().map(row -> row.request().password()).toList();
+        if (passwordEncoder instanceof BoundedPasswordEncoder boundedPasswordEncoder) {
+            return boundedPasswordEncoder.encodeAll(passwords);
+        }
+        return passwords.stream().map(passwordEncoder::encode).toList();
+    }
+
+    private void insert(List<Row> rows, List<String> hashes) {
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+
+            // getReference no consulta la base de datos: basta el id para la tabla users_roles
+            Set<RoleEntity> roles = new HashSet<>();
+            row.roles().forEach(roleId -> roles.add(entityManager.getReference(RoleEntity.class, roleId)));
+
+            entityManager.persist(UserEntity.builder()
+                    .username(row.username())
+                    .password(hashes.get(i))
+                    .roles(roles)
+                    .isEnabled(true)
+                    .accountNoLocked(true)
+                    .accountNoExpired(true)
+                    .credentialNoExpired(true)
+                    .build());
+        }
+        // Se mandan los INSERT y se libera el contexto de persistencia antes del siguiente bloque
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void write(OutputStream out, List<AuthBatchUserResponse> results) throws IOException {
+        for (AuthBatchUserResponse result : results) {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write(NEW_LINE);
+        }
+        out.flush();
+    }
+
+    // Una línea del NDJSON: la petición con sus roles ya resueltos, o el motivo del rechazo
+    private record Row(long line, String username, AuthCreateUserRequest request, Set<Long> roles, String error) {
+
+        private static Row rejected(long line, String username, String error) {
+            return new Row(line, username, null, Set.of(), error);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.app.utils;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureGenerationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+
+// Algoritmo EdDSA (Ed25519, RFC 8037) para java-jwt, que no lo trae
+// Igual que PooledHmacAlgorithm, las Signature ya inicializadas salen de un InstancePool y se reutilizan:
+// después de sign() o verify() quedan listas para la siguiente firma con la misma llave.
+public class EdDsaAlgorithm extends Algorithm {
+
+    private static final String JCA_NAME = "Ed25519";
+
+    private final PublicKey publicKey;
+    private final PrivateKey privateKey;
+
+    private final InstancePool<Signature> verifiers;
+    private final InstancePool<Signature> signers;
+
+    // privateKey puede ser null si la llave solo se usa para verificar
+    public EdDsaAlgorithm(PublicKey publicKey, PrivateKey privateKey) {
+        super("EdDSA", JCA_NAME);
+        if (publicKey == null) {
+            throw new IllegalArgumentException("The public key cannot be null");
+        }
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        // Validamos las llaves al cargarlas y no en la primera petición
+        newVerifier();
+        if (privateKey != null) {
+            newSigner();
+        }
+        this.verifiers = new InstancePool<>(this::newVerifier);
+        this.signers = new InstancePool<>(this::newSigner);
+    }
+
+    @Override
+    public void verify(DecodedJWT jwt) throws SignatureVerificationException {
+        try {
+            byte[] signatureBytes = Base64.getUrlDecoder().decode(jwt.getSignature());
+            Signature signature = this.verifiers.acquire();
+            signature.update(jwt.getHeader().getBytes(StandardCharsets.US_ASCII));
+            signature.update((byte) '.');
+            signature.update(jwt.getPayload().getBytes(StandardCharsets.US_ASCII));
+            // Una excepción antes de este punto deja la Signature con datos a medias: no vuelve al pool
+            boolean valid = signature.verify(signatureBytes);
+            this.verifiers.release(signature);
+            if (!valid) {
+                throw new SignatureVerificationException(this);
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new SignatureVerificationException(this, e);
+        }
+    }
+
+    @Override
+    public byte[] sign(byte[] headerBytes, byte[] payloadBytes) throws SignatureGenerationException {
+        if (this.privateKey == null) {
+            throw new IllegalStateException("The private key is not available for signing");
+        }
+        try {
+            Signature signature = this.signers.acquire();
+            signature.update(headerBytes);
+            signature.update((byte) '.');
+            signature.update(payloadBytes);
+            byte[] signed = signature.sign();
+            this.signers.release(signature);
+            return signed;
+        } catch (GeneralSecurityException e) {
+            throw new SignatureGenerationException(this, e);
+        }
+    }
+
+    @Override
+    @Deprecated
+    public byte[] sign(byte[] contentBytes) throws SignatureGenerationException {
+        if (this.privateKey == null) {
+            throw new IllegalStateException("The private key is not available for signing");
+        }
+        try {
+            Signature signature = this.signers.acquire();
+            signature.update(contentBytes);
+            byte[] signed = signature.sign();
+            this.signers.release(signature);
+            return signed;
+        } catch (GeneralSecurityException e) {
+            throw new SignatureGenerationException(this, e);
+        }
+    }
+
+    private Signature newVerifier() {
+        try {
+            Signature signature = Signature.getInstance(JCA_NAME);
+            signature.initVerify(this.publicKey);
+            return signature;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Unable to initialize " + JCA_NAME, e);
+        }
+    }
+
+    private Signature newSigner() {
+        try {
+            Signature signature = Signature.getInstance(JCA_NAME);
+            signature.initSign(this.privateKey);
+            return signature;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Unable to initialize " + JCA_NAME, e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.app.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+// Pool acotado de objetos que cuestan inicializar y no son thread-safe (Mac, Signature, MessageDigest)
+// A diferencia de un ThreadLocal no depende del hilo: con virtual threads cada petición corre en un hilo
+// nuevo, y un ThreadLocal.withInitial crearía e inicializaría el objeto otra vez en cada petición.
+// - acquire() toma uno libre, o crea uno nuevo si no hay ninguno
+// - release() lo devuelve si hay lugar; si el pool está lleno se descarta
+// Los slots son un AtomicReferenceArray: tomar y devolver es un getAndSet/compareAndSet, sin locks ni allocations.
+// Quien lo usa solo puede devolver un objeto que quedó listo para el siguiente uso (sin datos a medias).
+public final class InstancePool<T> {
+
+    // El trabajo con los objetos es CPU puro y corto: no hay más usos simultáneos que hilos de CPU.
+    // El doble deja margen para los que están entre acquire y release
+    private static final int DEFAULT_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final AtomicReferenceArray<T> slots;
+
+    private final Supplier<T> factory;
+
+    public InstancePool(Supplier<T> factory) {
+        this(DEFAULT_SIZE, factory);
+    }
+
+    public InstancePool(int size, Supplier<T> factory) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The pool size must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.factory = factory;
+    }
+
+    public T acquire() {
+        int length = this.slots.length();
+        // Empezar en un slot al azar reparte los hilos y evita que todos compitan por el primero
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            if (this.slots.get(index) != null) {
+                T instance = this.slots.getAndSet(index, null);
+                if (instance != null) {
+                    return instance;
+                }
+            }
+        }
+        return this.factory.get();
+    }
+
+    public void release(T instance) {
+        int length = this.slots.length();
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            if (this.slots.get(index) == null && this.slots.compareAndSet(index, null, instance)) {
+                return;
+            }
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package com.app.utils;
 
+import com.app.config.authorization.AuthorityBitsAuthenticationToken;
+import com.app.config.filter.RevokedTokenStore;
+import com.app.config.filter.VerifiedTokenCache;
+import com.app.config.metrics.AuthMetrics;
+import com.app.services.AuthorityRegistry;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -20,7 +34,17 @@ import java.util.stream.Collectors;
 @Component
 public class JwtUtils {
 
-    // Llave privada
+    // Claims del formato compacto de authorities
+    public static final String AUTHORITY_BITS_CLAIM = "abits";
+    public static final String AUTHORITY_LAYOUT_CLAIM = "amap";
+
+    // Familia de refresh tokens del login que emitió el token de acceso (ver RefreshTokenService)
+    public static final String SESSION_CLAIM = "sid";
+
+    // Formatos del claim de authorities: "string" (ROLE_ADMIN,CREATE,...) o "bitset" (un long en base64)
+    public static final String FORMAT_BITSET = "bitset";
+
+    // Llave privada (HS256). Se usa si no hay llaves asimétricas en SigningKeyStore
     @Value("${security.jwt.key.private}")
     private String privateKey;
 
@@ -28,60 +52,226 @@ public class JwtUtils {
     @Value("${security.jwt.user.generator}")
     private String userGenerator;
 
+    // Vida del token de acceso. Es corta porque se renueva con el refresh token (/auth/refresh)
+    @Value("${security.jwt.access-token.ttl:30m}")
+    private Duration accessTokenTtl = Duration.ofMinutes(30);
+
+    // Formato con el que se emiten los authorities. Al validar se aceptan ambos formatos
+    @Value("${security.jwt.authorities.format:string}")
+    private String authoritiesFormat;
+
+    @Autowired
+    private AuthorityRegistry authorityRegistry;
+
+    // Tokens ya verificados, compartida por el filtro servlet y el WebFilter reactivo
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    // Tokens revocados (logout), por jti
+    @Autowired
+    private RevokedTokenStore revokedTokenStore;
+
+    // Llaves asimétricas (RS256, ES256, EdDSA) indexadas por kid
+    @Autowired
+    private SigningKeyStore keyStore;
+
+    // Tiempos de firma y de parseo de claims (no-op si las métricas están apagadas)
+    @Autowired
+    private AuthMetrics authMetrics = AuthMetrics.NOOP;
+
+    // true: solo se aceptan tokens con kid (firmados con las llaves asimétricas), no los HS256
+    @Value("${security.jwt.keys.reject-hmac:false}")
+    private boolean rejectHmac;
+
+    // Algoritmo y verificador construidos una sola vez al arrancar.
+    // Ambos son thread-safe, así que se comparten entre todas las peticiones
+    private Algorithm algorithm;
+
+    private JWTVerifier verifier;
+
+    @PostConstruct
+    public void init() {
+        this.algorithm = new PooledHmacAlgorithm(this.privateKey);
+        this.verifier = JWT.require(this.algorithm)
+                .withIssuer(this.userGenerator)
+                .build();
+    }
+
     // Metodos de utileria
 
     // Metodo encargado de crear el token
     // Se pasa un objeto de Authentication para extraer los datos del usuario
     public String createToken(Authentication authentication) {
+        return createToken(authentication, null);
+    }
 
-        // Definimos cual va a hacer el algoritmo de encriptación
-        Algorithm algorithm = Algorithm.HMAC256(this.privateKey);
+    // sessionId: familia de refresh tokens de la sesión; el logout la revoca junto con el token de acceso
+    public String createToken(Authentication authentication, String sessionId) {
 
         // Luego extraemos el usuario que se va a autenticar
         String username = authentication.getPrincipal().toString();
 
-        // Tambien extraemos los authorities en un string separado por comas
-        String authorities =
-                authentication
-                        .getAuthorities()
-                        .stream()
-                        .map(GrantedAuthority::getAuthority)
-                        .collect(Collectors.joining(","));
-
         // Generamos el token
-        String jwtToken = JWT.create()
+        JWTCreator.Builder builder = JWT.create()
                 .withIssuer(this.userGenerator) // Quien lo genera
-                .withSubject(username) // A quien se lo genera
-                .withClaim("authorities", authorities) // Generar los permisos en los claims
+                .withSubject(username); // A quien se lo genera
+
+        if (sessionId != null) {
+            builder.withClaim(SESSION_CLAIM, sessionId);
+        }
+
+        // Generar los permisos en los claims
+        withAuthorities(builder, authentication.getAuthorities());
+
+        // Con llaves asimétricas se firma con la llave activa y su kid va en el header
+        SigningKeyStore.SigningKey signingKey = this.keyStore != null ? this.keyStore.signingKey() : null;
+        Algorithm signingAlgorithm = this.algorithm;
+        if (signingKey != null) {
+            builder.withKeyId(signingKey.kid());
+            signingAlgorithm = signingKey.algorithm();
+        }
+
+        long start = this.authMetrics.start();
+        String jwtToken = builder
                 .withIssuedAt(new Date()) // Fecha que se crea
-                .withExpiresAt(new Date(System.currentTimeMillis() + 1800000)) // El momento actual en milisegundos sumado 30 minutos en milisegundos
+                .withExpiresAt(new Date(System.currentTimeMillis() + this.accessTokenTtl.toMillis())) // El momento actual más la vida del token
                 .withJWTId(UUID.randomUUID().toString()) // Asignando un id al token
                 .withNotBefore(new Date(System.currentTimeMillis())) // Token valido a partir de este momento
-                .sign(algorithm); // Firma del token, con el algoritmo de encriptacion
+                .sign(signingAlgorithm); // Firma del token, con el algoritmo de encriptacion
+        this.authMetrics.tokenSigned(start);
 
         return jwtToken; // Retornamos el token.
     }
 
+    // Agrega los authorities al token en el formato configurado
+    private void withAuthorities(JWTCreator.Builder builder, Collection<? extends GrantedAuthority> authorities) {
+        if (FORMAT_BITSET.equals(this.authoritiesFormat)) {
+            // Máscara de bits: solo si todos los authorities tienen un bit asignado
+            OptionalLong mask = this.authorityRegistry.encode(authorities);
+            if (mask.isPresent()) {
+                builder.withClaim(AUTHORITY_BITS_CLAIM, encodeBits(mask.getAsLong()))
+                        .withClaim(AUTHORITY_LAYOUT_CLAIM, this.authorityRegistry.fingerprint());
+                return;
+            }
+        }
+
+        // Tambien extraemos los authorities en un string separado por comas
+        String stringAuthorities = authorities
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+
+        builder.withClaim("authorities", stringAuthorities);
+    }
+
     // Método para validar el token
     public DecodedJWT validateToken(String token) {
         try {
-            // Algoritmo de encriptacion con la llave privada
-            Algorithm algorithm = Algorithm.HMAC256(this.privateKey);
-
-            // Verificador del token
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .withIssuer(this.userGenerator)
-                    .build();
-
-            // Verificamos el token
-            DecodedJWT decodedJWT = verifier.verify(token);
+            // Se decodifica una sola vez: el kid del header elige el verificador y el mismo
+            // DecodedJWT se verifica sin volver a parsear el token
+            DecodedJWT decoded = JWT.decode(token);
+            DecodedJWT decodedJWT = verifierOf(decoded).verify(decoded);
 
             // Lo retornamos decodificado
             return decodedJWT;
 
         } catch (JWTVerificationException exception){
             // Excepcion que se ejecuta cuando el token es invalido
-            throw new JWTVerificationException("Token invalid, not Authorized");
+            throw TokenRejectedException.INVALID;
+        }
+    }
+
+    // Tokens con kid: la llave asimétrica de ese kid. Tokens sin kid: HS256 con la llave privada
+    private JWTVerifier verifierOf(DecodedJWT decoded) {
+        String kid = decoded.getKeyId();
+        if (kid == null) {
+            if (this.rejectHmac) {
+                throw TokenRejectedException.INVALID;
+            }
+            return this.verifier;
+        }
+        JWTVerifier kidVerifier = this.keyStore != null ? this.keyStore.verifier(kid) : null;
+        if (kidVerifier == null) {
+            throw TokenRejectedException.INVALID;
+        }
+        return kidVerifier;
+    }
+
+    // Valida el token y retorna su Authentication. Es la lógica común de JwtTokenValidator (servlet)
+    // y JwtAuthenticationWebFilter (WebFlux): si el token ya se verificó antes, se reutiliza
+    // el Authentication cacheado sin repetir el HMAC ni el parseo
+    // La revocación (logout) se revisa siempre, también cuando el token sale de la cache
+    public Authentication authenticateToken(String token) {
+        Authentication authentication = this.tokenCache != null ? this.tokenCache.get(token) : null;
+        if (authentication == null) {
+            DecodedJWT decodedJWT = validateToken(token);
+            authentication = toAuthentication(decodedJWT);
+
+            // Lo guardamos hasta que el token expire
+            if (this.tokenCache != null) {
+                this.tokenCache.put(token, decodedJWT, authentication);
+            }
+        }
+
+        if (this.revokedTokenStore != null && authentication instanceof AuthorityBitsAuthenticationToken jwtAuthentication
+                && this.revokedTokenStore.isRevoked(jwtAuthentication.getTokenId())) {
+            throw TokenRejectedException.REVOKED;
+        }
+        return authentication;
+    }
+
+    // Construye el Authentication de un token ya validado, aceptando los dos formatos de authorities
+    public Authentication toAuthentication(DecodedJWT decodedJWT) {
+        long start = this.authMetrics.start();
+        Authentication authentication = buildAuthentication(decodedJWT);
+        this.authMetrics.claimsParsed(start);
+        return authentication;
+    }
+
+    private Authentication buildAuthentication(DecodedJWT decodedJWT) {
+        String username = extractUsername(decodedJWT);
+        int layout = this.authorityRegistry.fingerprint();
+        String tokenId = decodedJWT.getId();
+        long expiresAt = decodedJWT.getExpiresAtAsInstant() != null ? decodedJWT.getExpiresAtAsInstant().toEpochMilli() : 0L;
+        String sessionId = getSpecificClaim(decodedJWT, SESSION_CLAIM).asString();
+
+        Claim bits = getSpecificClaim(decodedJWT, AUTHORITY_BITS_CLAIM);
+        if (!bits.isMissing()) {
+            // Los bits solo tienen sentido con una asignación en la que significan lo mismo que al emitir el token
+            Integer tokenLayout = getSpecificClaim(decodedJWT, AUTHORITY_LAYOUT_CLAIM).asInt();
+            if (tokenLayout == null || !this.authorityRegistry.accepts(tokenLayout)) {
+                throw TokenRejectedException.OUTDATED;
+            }
+            long mask = decodeBits(bits.asString());
+            return new AuthorityBitsAuthenticationToken(username, this.authorityRegistry.decode(mask), mask, layout,
+                    tokenId, expiresAt, sessionId);
+        }
+
+        // Obtenemos los authorities (permisos) en formato string
+        String stringAuthorities = getSpecificClaim(decodedJWT, "authorities").asString();
+
+        // El registro devuelve instancias compartidas, sin crear objetos nuevos por petición
+        List<GrantedAuthority> authorities = this.authorityRegistry.parseClaim(stringAuthorities);
+        return new AuthorityBitsAuthenticationToken(username, authorities, this.authorityRegistry.maskOf(authorities), layout,
+                tokenId, expiresAt, sessionId);
+    }
+
+    private static String encodeBits(long mask) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(mask).array());
+    }
+
+    private static long decodeBits(String encoded) {
+        if (encoded == null) {
+            throw TokenRejectedException.INVALID;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(encoded);
+            if (bytes.length != Long.BYTES) {
+                throw TokenRejectedException.INVALID;
+            }
+            return ByteBuffer.wrap(bytes).getLong();
+        } catch (IllegalArgumentException exception) {
+            throw TokenRejectedException.INVALID;
         }
     }
 
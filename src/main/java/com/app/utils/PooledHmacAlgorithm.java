@@ -0,0 +1,130 @@
+package com.app.utils;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureGenerationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+// Algoritmo HS256 equivalente a Algorithm.HMAC256, pero que reutiliza Macs ya inicializados
+// Algorithm.HMAC256 crea un Mac nuevo (Mac.getInstance + init) en cada firma y en cada verificación.
+// Aquí la llave se construye una sola vez y los Mac (con sus buffers) salen de un InstancePool,
+// así que firmar o verificar no hace allocations de configuración por petición, tampoco con virtual threads.
+public class PooledHmacAlgorithm extends Algorithm {
+
+    private static final String JCA_NAME = "HmacSHA256";
+
+    // Tamaño de la firma HS256 (32 bytes) codificada en base64url sin padding
+    private static final int SIGNATURE_LENGTH = 43;
+
+    private static final Base64.Encoder SIGNATURE_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecretKeySpec secretKey;
+
+    // El Mac ya inicializado y buffers reutilizables, compartidos entre todos los hilos
+    private final InstancePool<HmacState> pool;
+
+    public PooledHmacAlgorithm(String secret) {
+        super("HS256", JCA_NAME);
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("The Secret cannot be null or empty");
+        }
+        this.secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), JCA_NAME);
+        // Validamos la llave al arrancar y no en la primera petición
+        newMac(this.secretKey);
+        this.pool = new InstancePool<>(() -> new HmacState(newMac(this.secretKey)));
+    }
+
+    @Override
+    public void verify(DecodedJWT jwt) throws SignatureVerificationException {
+        String signature = jwt.getSignature();
+        if (signature == null || signature.length() != SIGNATURE_LENGTH) {
+            throw new SignatureVerificationException(this);
+        }
+
+        HmacState hmac = this.pool.acquire();
+        int diff = 0;
+        try {
+            hmac.updateAscii(jwt.getHeader());
+            hmac.mac.update((byte) '.');
+            hmac.updateAscii(jwt.getPayload());
+            hmac.mac.doFinal(hmac.digest, 0);
+
+            // Comparamos la firma codificada contra el String del token, sin decodificarlo
+            SIGNATURE_ENCODER.encode(hmac.digest, hmac.encoded);
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                diff |= hmac.encoded[i] ^ signature.charAt(i);
+            }
+        } catch (ShortBufferException e) {
+            // El Mac puede quedar con datos a medias: no vuelve al pool
+            throw new SignatureVerificationException(this, e);
+        }
+        this.pool.release(hmac);
+        if (diff != 0) {
+            throw new SignatureVerificationException(this);
+        }
+    }
+
+    @Override
+    public byte[] sign(byte[] headerBytes, byte[] payloadBytes) throws SignatureGenerationException {
+        HmacState hmac = this.pool.acquire();
+        Mac mac = hmac.mac;
+        mac.update(headerBytes);
+        mac.update((byte) '.');
+        mac.update(payloadBytes);
+        byte[] signature = mac.doFinal();
+        this.pool.release(hmac);
+        return signature;
+    }
+
+    @Override
+    @Deprecated
+    public byte[] sign(byte[] contentBytes) throws SignatureGenerationException {
+        HmacState hmac = this.pool.acquire();
+        byte[] signature = hmac.mac.doFinal(contentBytes);
+        this.pool.release(hmac);
+        return signature;
+    }
+
+    private static Mac newMac(SecretKeySpec secretKey) {
+        try {
+            Mac mac = Mac.getInstance(JCA_NAME);
+            mac.init(secretKey);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Unable to initialize " + JCA_NAME, e);
+        }
+    }
+
+    private static final class HmacState {
+
+        private final Mac mac;
+        private final byte[] digest;
+        private final byte[] encoded = new byte[SIGNATURE_LENGTH];
+        private byte[] ascii = new byte[512];
+
+        private HmacState(Mac mac) {
+            this.mac = mac;
+            this.digest = new byte[mac.getMacLength()];
+        }
+
+        // Las partes del token son base64url (ASCII), así que las copiamos a un buffer
+        // reutilizable en vez de usar getBytes(), que crea un arreglo nuevo cada vez
+        @SuppressWarnings("deprecation")
+        private void updateAscii(String part) {
+            int length = part.length();
+            if (this.ascii.length < length) {
+                this.ascii = new byte[Math.max(length, this.ascii.length * 2)];
+            }
+            part.getBytes(0, length, this.ascii, 0);
+            this.mac.update(this.ascii, 0, length);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.app.utils;
+
+import com.app.config.filter.VerifiedTokenCache;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Llaves asimétricas para firmar y verificar los JWT (RS256, ES256 y EdDSA/Ed25519).
+ * Se cargan de un directorio local (security.jwt.keys.directory) con archivos PEM:
+ * - "<kid>.pub": llave pública X.509 ("BEGIN PUBLIC KEY"). Basta para verificar
+ * - "<kid>.key": llave privada PKCS#8 ("BEGIN PRIVATE KEY"). Con su .pub, la llave también puede firmar
+ * El algoritmo sale del tipo de llave (RSA -> RS256, EC P-256 -> ES256, Ed25519 -> EdDSA)
+ * y el kid es el nombre del archivo. Firma la llave security.jwt.keys.active o, si no se indica,
+ * la llave más reciente que ya lleva security.jwt.keys.publish-delay publicada en el JWKS.
+ *
+ * El directorio se vigila con un WatchService: rotar es dejar la llave nueva y borrar la vieja
+ * cuando sus tokens ya expiraron. La llave nueva se publica en el JWKS enseguida, pero solo pasa a firmar
+ * cuando pasó el publish-delay (el max-age del JWKS): así los verificadores con el JWKS en cache
+ * ya la conocen cuando llegan los primeros tokens firmados con ella. Cada recarga arma una foto nueva
+ * (kid -> verificador, copy-on-write), así que las lecturas no usan locks.
+ * Si la recarga falla se conserva la foto anterior.
+ */
+@Component
+public class SigningKeyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeyStore.class);
+
+    // Espera después de un cambio, para no leer un archivo que todavía se está copiando
+    private static final long RELOAD_DELAY_MILLIS = 250;
+
+    // Vacío: no hay llaves asimétricas y los tokens se firman con HS256 (security.jwt.key.private)
+    @Value("${security.jwt.keys.directory:}")
+    private String directory;
+
+    @Value("${security.jwt.keys.active:}")
+    private String activeKid;
+
+    // Tiempo que una llave pasa publicada en el JWKS antes de firmar. Es también el max-age del JWKS (JwksController)
+    @Value("${security.jwt.keys.publish-delay:5m}")
+    private Duration publishDelay;
+
+    @Value("${security.jwt.user.generator}")
+    private String userGenerator;
+
+    @Autowired(required = false)
+    private VerifiedTokenCache tokenCache;
+
+    private volatile Keys keys = Keys.EMPTY;
+
+    // Momento desde el que cada kid está publicado en el JWKS. Solo lo usan load() al arrancar y el hilo del watcher
+    private final Map<String, Instant> publishedAt = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (this.directory == null || this.directory.isBlank()) {
+            return;
+        }
+        Path path = Path.of(this.directory);
+        // Al arrancar, un directorio inválido es un error de configuración
+        this.keys = load(path, true);
+
+        this.watchService = path.getFileSystem().newWatchService();
+        path.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        Thread watcher = new Thread(() -> watch(path), "jwt-keys-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (this.watchService != null) {
+            this.watchService.close();
+        }
+    }
+
+    // Llave con la que se firman los tokens nuevos, o null si se firma con HS256
+    public SigningKey signingKey() {
+        return this.keys.signing;
+    }
+
+    // Verificador de un kid, o null si el kid no existe
+    public JWTVerifier verifier(String kid) {
+        return this.keys.verifiers.get(kid);
+    }
+
+    // Llaves públicas en formato JWK (RFC 7517), para /.well-known/jwks.json
+    public List<Map<String, Object>> jwks() {
+        return this.keys.jwks;
+    }
+
+    private void watch(Path path) {
+        try {
+            while (true) {
+                // Con una llave esperando su publish-delay, se recarga también cuando se cumple
+                Instant nextSwitch = this.keys.nextSwitch();
+                WatchKey key = nextSwitch == null
+                        ? this.watchService.take()
+                        : this.watchService.poll(Math.max(1, Duration.between(Instant.now(), nextSwitch).toMillis() + 1),
+                        TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    // Se juntan los eventos de la misma copia o rotación en una sola recarga
+                    TimeUnit.MILLISECONDS.sleep(RELOAD_DELAY_MILLIS);
+                    key.pollEvents();
+                    key.reset();
+                }
+                reload(path);
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // La aplicación se está cerrando
+        }
+    }
+
+    private void reload(Path path) {
+        try {
+            Keys previous = this.keys;
+            Keys loaded = load(path, false);
+            this.keys = loaded;
+            log.info("JWT keys reloaded: {} (signing with {})", loaded.verifiers.keySet(),
+                    loaded.signing != null ? loaded.signing.kid() : "HS256");
+
+            // Los tokens ya verificados con una llave que se quitó dejan de ser válidos
+            if (this.tokenCache != null && !loaded.verifiers.keySet().containsAll(previous.verifiers.keySet())) {
+                this.tokenCache.invalidateAll();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to reload the JWT keys from {}, keeping the previous keys", path, e);
+        }
+    }
+
+    // startup: al arrancar, las llaves que ya estaban se toman como publicadas desde la fecha de su .pub
+    // (las otras instancias ya las publicaban). Una llave que aparece después cuenta desde que esta instancia la ve
+    private Keys load(Path path, boolean startup) throws IOException {
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        Map<String, PrivateKey> privateKeys = new HashMap<>();
+        Map<String, Instant> modified = new HashMap<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(path)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".pub")) {
+                    publicKeys.put(kidOf(name), readPublicKey(file));
+                    modified.put(kidOf(name), Files.getLastModifiedTime(file).toInstant());
+                } else if (name.endsWith(".key")) {
+                    privateKeys.put(kidOf(name), readPrivateKey(file));
+                }
+            }
+        }
+
+        // Una llave quitada y vuelta a poner empieza su publish-delay otra vez
+        Instant now = Instant.now();
+        this.publishedAt.keySet().retainAll(publicKeys.keySet());
+        for (Map.Entry<String, Instant> entry : modified.entrySet()) {
+            this.publishedAt.putIfAbsent(entry.getKey(), startup ? entry.getValue() : now);
+        }
+
+        Map<String, JWTVerifier> verifiers = new HashMap<>();
+        Map<String, Algorithm> algorithms = new HashMap<>();
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (Map.Entry<String, PublicKey> entry : publicKeys.entrySet()) {
+            String kid = entry.getKey();
+            Algorithm algorithm = algorithmOf(kid, entry.getValue(), privateKeys.get(kid));
+            algorithms.put(kid, algorithm);
+            verifiers.put(kid, JWT.require(algorithm).withIssuer(this.userGenerator).build());
+            jwks.add(jwkOf(kid, algorithm.getName(), entry.getValue()));
+        }
+
+        String signingKid = this.activeKid != null && !this.activeKid.isBlank() ? this.activeKid : null;
+        Instant nextSwitch = null;
+        if (signingKid == null) {
+            // La más reciente de las que ya cumplieron el publish-delay
+            Instant publishedBefore = now.minus(this.publishDelay);
+            String newestKid = null;
+            String oldestKid = null;
+            for (String kid : privateKeys.keySet()) {
+                Instant since = this.publishedAt.get(kid);
+                if (since == null) {
+                    continue;
+                }
+                if (!since.isAfter(publishedBefore)) {
+                    if (newestKid == null || since.isAfter(this.publishedAt.get(newestKid))) {
+                        newestKid = kid;
+                    }
+                } else if (nextSwitch == null || since.plus(this.publishDelay).isBefore(nextSwitch)) {
+                    nextSwitch = since.plus(this.publishDelay);
+                }
+                if (oldestKid == null || since.isBefore(this.publishedAt.get(oldestKid))) {
+                    oldestKid = kid;
+                }
+            }
+            signingKid = newestKid;
+            if (signingKid == null && oldestKid != null) {
+                // Ninguna cumplió el plazo (primera llave, o se borró la anterior): firma la publicada hace más tiempo
+                log.warn("No JWT key has been published for {} yet, signing with {}", this.publishDelay, oldestKid);
+                signingKid = oldestKid;
+            }
+        }
+        if (signingKid != null && !(privateKeys.containsKey(signingKid) && publicKeys.containsKey(signingKid))) {
+            throw new IllegalStateException("The signing key " + signingKid + " needs both " + signingKid
+                    + ".key and " + signingKid + ".pub in " + path);
+        }
+
+        SigningKey signing = signingKid != null ? new SigningKey(signingKid, algorithms.get(signingKid)) : null;
+        return new Keys(Map.copyOf(verifiers), signing, List.copyOf(jwks), nextSwitch);
+    }
+
+    private static String kidOf(String fileName) {
+        return fileName.substring(0, fileName.lastIndexOf('.'));
+    }
+
+    private static Algorithm algorithmOf(String kid, PublicKey publicKey, PrivateKey privateKey) {
+        if (publicKey instanceof RSAPublicKey rsaPublicKey) {
+            return Algorithm.RSA256(rsaPublicKey, (RSAPrivateKey) privateKey);
+        }
+        if (publicKey instanceof ECPublicKey ecPublicKey) {
+            if (ecPublicKey.getParams().getCurve().getField().getFieldSize() != 256) {
+                throw new IllegalStateException("The key " + kid + " is not a P-256 key (required by ES256)");
+            }
+            return Algorithm.ECDSA256(ecPublicKey, (ECPrivateKey) privateKey);
+        }
+        if (publicKey instanceof EdECPublicKey) {
+            return new EdDsaAlgorithm(publicKey, privateKey);
+        }
+        throw new IllegalStateException("Unsupported key type " + publicKey.getAlgorithm() + " for " + kid);
+    }
+
+    private static Map<String, Object> jwkOf(String kid, String alg, PublicKey publicKey) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (publicKey instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", encoder.encodeToString(unsigned(rsa.getModulus(), 0)));
+            jwk.put("e", encoder.encodeToString(unsigned(rsa.getPublicExponent(), 0)));
+        } else if (publicKey instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", encoder.encodeToString(unsigned(ec.getW().getAffineX(), 32)));
+            jwk.put("y", encoder.encodeToString(unsigned(ec.getW().getAffineY(), 32)));
+        } else {
+            // X.509 de Ed25519: 12 bytes de encabezado y luego los 32 bytes de la llave
+            byte[] encoded = publicKey.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", encoder.encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+        }
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", alg);
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    // Entero sin signo en big-endian, con un largo fijo (length > 0) o el mínimo necesario
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        int start = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+        int size = bytes.length - start;
+        if (length <= 0 || size == length) {
+            return Arrays.copyOfRange(bytes, start, bytes.length);
+        }
+        byte[] padded = new byte[length];
+        System.arraycopy(bytes, start, padded, length - size, size);
+        return padded;
+    }
+
+    private static PublicKey readPublicKey(Path file) throws IOException {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(readPem(file));
+        for (String algorithm : List.of("RSA", "EC", "Ed25519")) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePublic(spec);
+            } catch (GeneralSecurityException e) {
+                // Se prueba con el siguiente tipo de llave
+            }
+        }
+        throw new IllegalStateException("Unsupported public key " + file);
+    }
+
+    private static PrivateKey readPrivateKey(Path file) throws IOException {
+        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(readPem(file));
+        for (String algorithm : List.of("RSA", "EC", "Ed25519")) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePrivate(spec);
+            } catch (GeneralSecurityException e) {
+                // Se prueba con el siguiente tipo de llave
+            }
+        }
+        throw new IllegalStateException("Unsupported private key " + file);
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        StringBuilder base64 = new StringBuilder();
+        for (String line : Files.readAllLines(file)) {
+            if (!line.startsWith("-----")) {
+                base64.append(line.trim());
+            }
+        }
+        return Base64.getDecoder().decode(base64.toString());
+    }
+
+    // Llave con la que se firman los tokens nuevos
+    public record SigningKey(String kid, Algorithm algorithm) {
+    }
+
+    // Foto inmutable de las llaves cargadas
+    // nextSwitch: cuándo cumple su publish-delay la próxima llave que espera para firmar, o null
+    private record Keys(Map<String, JWTVerifier> verifiers, SigningKey signing, List<Map<String, Object>> jwks,
+                        Instant nextSwitch) {
+
+        private static final Keys EMPTY = new Keys(Map.of(), null, List.of(), null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.app.utils;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+
+// Rechazo de un token sin stack trace y con instancias preasignadas
+// Un token inválido es un caso esperado (y barato de provocar): no vale la pena recorrer la pila
+// ni crear una excepción nueva en cada petición rechazada
+public final class TokenRejectedException extends JWTVerificationException {
+
+    public static final TokenRejectedException MALFORMED = new TokenRejectedException("Token malformed, not Authorized");
+    public static final TokenRejectedException INVALID = new TokenRejectedException("Token invalid, not Authorized");
+    public static final TokenRejectedException OUTDATED = new TokenRejectedException("Token authorities are outdated, not Authorized");
+    public static final TokenRejectedException REVOKED = new TokenRejectedException("Token revoked, not Authorized");
+
+    private TokenRejectedException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
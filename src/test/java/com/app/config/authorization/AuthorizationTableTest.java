@@ -0,0 +1,58 @@
+package com.app.config.authorization;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthorizationTableTest {
+
+	// Las mismas reglas (y en el mismo orden) que SecurityConfig
+	private final AuthorizationTable<String> table = AuthorizationTable.builder("denyAll")
+			.add(HttpMethod.POST, "/auth/sign-up/batch", "admin")
+			.add(HttpMethod.POST, "/auth/logout", "authenticated")
+			.add(HttpMethod.POST, "/auth/**", "permitAll")
+			.add(HttpMethod.GET, "/.well-known/jwks.json", "permitAll")
+			.add(HttpMethod.POST, "/method/post", "adminOrDeveloper")
+			.add(HttpMethod.PATCH, "/method/patch", "refactor")
+			.add(HttpMethod.GET, "method/get", "read")
+			.add(HttpMethod.GET, "/actuator/**", "admin")
+			.build();
+
+	@Test
+	void firstDeclaredRuleWins() {
+		assertThat(table.resolve("POST", "/auth/sign-up/batch")).isEqualTo("admin");
+		assertThat(table.resolve("POST", "/auth/logout")).isEqualTo("authenticated");
+		assertThat(table.resolve("POST", "/auth/log-in")).isEqualTo("permitAll");
+		assertThat(table.resolve("POST", "/auth/sign-up/batch/extra")).isEqualTo("permitAll");
+	}
+
+	@Test
+	void matchesByMethodAndPath() {
+		assertThat(table.resolve("GET", "/method/get")).isEqualTo("read");
+		assertThat(table.resolve("PATCH", "/method/patch")).isEqualTo("refactor");
+		assertThat(table.resolve("GET", "/actuator")).isEqualTo("admin");
+		assertThat(table.resolve("GET", "/actuator/metrics/jwt.revoked.size")).isEqualTo("admin");
+		assertThat(table.resolve("GET", "/.well-known/jwks.json")).isEqualTo("permitAll");
+	}
+
+	@Test
+	void deniesAnythingUnmatched() {
+		assertThat(table.resolve("GET", "/auth/log-in")).isEqualTo("denyAll");
+		assertThat(table.resolve("POST", "/method/get")).isEqualTo("denyAll");
+		assertThat(table.resolve("GET", "/method/get/")).isEqualTo("denyAll");
+		assertThat(table.resolve("GET", "/method")).isEqualTo("denyAll");
+		assertThat(table.resolve("DELETE", "/auth/logout")).isEqualTo("denyAll");
+		assertThat(table.resolve("GET", "/")).isEqualTo("denyAll");
+	}
+
+	@Test
+	void rejectsUnsupportedPatterns() {
+		assertThatThrownBy(() -> AuthorizationTable.builder("denyAll").add(HttpMethod.GET, "/users/{id}", "read"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> AuthorizationTable.builder("denyAll").add(HttpMethod.GET, "/users/*/roles", "read"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
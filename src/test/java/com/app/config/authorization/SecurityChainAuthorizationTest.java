@@ -0,0 +1,172 @@
+package com.app.config.authorization;
+
+import com.app.utils.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+// La cadena real (SecurityConfig con AuthorizationTable y los tokens de JwtUtils) contra las reglas
+// requestMatchers que tenía antes, para cada combinación de método, path y authorities
+// Base propia: el seed corre en otro contexto y no se cruza con la base de los demás tests
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:authorizationdb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecurityChainAuthorizationTest {
+
+	private static final String[][] REQUESTS = {
+			{"POST", "/auth/log-in"},
+			{"POST", "/auth/refresh"},
+			{"POST", "/auth/logout"},
+			{"POST", "/auth/sign-up/batch"},
+			{"POST", "/auth/sign-up/batch/extra"},
+			{"POST", "/auth/unknown"},
+			{"GET", "/auth/log-in"},
+			{"GET", "/.well-known/jwks.json"},
+			{"POST", "/.well-known/jwks.json"},
+			{"POST", "/method/post"},
+			{"GET", "/method/post"},
+			{"PATCH", "/method/patch"},
+			{"GET", "/method/get"},
+			{"DELETE", "/method/get"},
+			{"GET", "/method/get/extra"},
+			{"GET", "/actuator"},
+			{"GET", "/actuator/health"},
+			{"POST", "/actuator/health"},
+			{"GET", "/unknown"},
+			{"GET", "/"}
+	};
+
+	// null: sin token (anónimo)
+	private static final String[] AUTHORITIES = {
+			null, "", "ROLE_ADMIN", "ROLE_DEVELOPER", "ROLE_INVITED,READ", "REFACTOR", "ROLE_USER,CREATE,UPDATE,DELETE"
+	};
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	// Las reglas de SecurityConfig antes de AuthorizationTable, con los matchers y managers de Spring Security
+	// "method/get" se declaraba sin "/" inicial; el matcher de Spring MVC lo normalizaba a "/method/get"
+	private final RequestMatcherDelegatingAuthorizationManager previousChain = previousChain();
+
+	@Test
+	void unmatchedRequestsAreDenied() throws Exception {
+		assertThat(allowed("GET", "/unknown", null)).isFalse();
+		assertThat(allowed("GET", "/unknown", "ROLE_ADMIN")).isFalse();
+		assertThat(allowed("DELETE", "/method/get", "ROLE_ADMIN,READ")).isFalse();
+		assertThat(allowed("GET", "/auth/log-in", null)).isFalse();
+		assertThat(allowed("GET", "/method/get/extra", "READ")).isFalse();
+	}
+
+	@Test
+	void specificAuthRulesWinOverTheAuthPrefix() throws Exception {
+		assertThat(allowed("POST", "/auth/log-in", null)).isTrue();
+		assertThat(allowed("POST", "/auth/unknown", null)).isTrue();
+
+		// /auth/logout necesita un token aunque esté debajo de /auth/**
+		assertThat(allowed("POST", "/auth/logout", null)).isFalse();
+		assertThat(allowed("POST", "/auth/logout", "")).isTrue();
+
+		// /auth/sign-up/batch solo para ADMIN; lo que cuelga debajo ya cae en /auth/**
+		assertThat(allowed("POST", "/auth/sign-up/batch", null)).isFalse();
+		assertThat(allowed("POST", "/auth/sign-up/batch", "ROLE_DEVELOPER")).isFalse();
+		assertThat(allowed("POST", "/auth/sign-up/batch", "ROLE_ADMIN")).isTrue();
+		assertThat(allowed("POST", "/auth/sign-up/batch/extra", null)).isTrue();
+	}
+
+	@Test
+	void actuatorIsOnlyForAdmins() throws Exception {
+		assertThat(allowed("GET", "/actuator/health", null)).isFalse();
+		assertThat(allowed("GET", "/actuator/health", "ROLE_DEVELOPER,READ")).isFalse();
+		assertThat(allowed("GET", "/actuator/health", "ROLE_ADMIN")).isTrue();
+		assertThat(allowed("GET", "/actuator", "ROLE_ADMIN")).isTrue();
+		assertThat(allowed("POST", "/actuator/health", "ROLE_ADMIN")).isFalse();
+	}
+
+	@Test
+	void sameDecisionsAsThePreviousRequestMatchersChain() throws Exception {
+		List<String> differences = new ArrayList<>();
+		for (String[] request : REQUESTS) {
+			for (String authorities : AUTHORITIES) {
+				boolean expected = previousChain.authorize(() -> authentication(authorities),
+						servletRequest(request[0], request[1])).isGranted();
+				boolean actual = allowed(request[0], request[1], authorities);
+				if (expected != actual) {
+					differences.add(request[0] + " " + request[1] + " [" + authorities + "]: expected "
+							+ (expected ? "allow" : "deny"));
+				}
+			}
+		}
+		assertThat(differences).isEmpty();
+	}
+
+	// La petición pasó la autorización si la cadena no respondió 401 (sin token) ni 403 (sin permiso)
+	// Lo que responda el controller después (400 por un body vacío, 404, 415) no importa aquí
+	private boolean allowed(String method, String path, String authorities) throws Exception {
+		MockHttpServletRequestBuilder builder = request(HttpMethod.valueOf(method), path);
+		if (authorities != null) {
+			builder.header("Authorization", "Bearer " + jwtUtils.createToken(authentication(authorities)));
+		}
+		int status = mockMvc.perform(builder).andReturn().getResponse().getStatus();
+		return status != 401 && status != 403;
+	}
+
+	private static Authentication authentication(String authorities) {
+		if (authorities == null) {
+			return new AnonymousAuthenticationToken("anonymous", "anonymousUser",
+					AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+		}
+		return UsernamePasswordAuthenticationToken.authenticated("Samuel", null,
+				AuthorityUtils.commaSeparatedStringToAuthorityList(authorities));
+	}
+
+	private static RequestMatcherDelegatingAuthorizationManager previousChain() {
+		AuthorizationManager<RequestAuthorizationContext> permitAll = (authentication, context) -> new AuthorizationDecision(true);
+		AuthorizationManager<RequestAuthorizationContext> denyAll = (authentication, context) -> new AuthorizationDecision(false);
+		PathPatternRequestMatcher.Builder path = PathPatternRequestMatcher.withDefaults();
+
+		return RequestMatcherDelegatingAuthorizationManager.builder()
+				.add(path.matcher(HttpMethod.POST, "/auth/sign-up/batch"), AuthorityAuthorizationManager.hasRole("ADMIN"))
+				.add(path.matcher(HttpMethod.POST, "/auth/logout"), AuthenticatedAuthorizationManager.authenticated())
+				.add(path.matcher(HttpMethod.POST, "/auth/**"), permitAll)
+				.add(path.matcher(HttpMethod.GET, "/.well-known/jwks.json"), permitAll)
+				.add(path.matcher(HttpMethod.POST, "/method/post"), AuthorityAuthorizationManager.hasAnyRole("ADMIN", "DEVELOPER"))
+				.add(path.matcher(HttpMethod.PATCH, "/method/patch"), AuthorityAuthorizationManager.hasAuthority("REFACTOR"))
+				.add(path.matcher(HttpMethod.GET, "/method/get"), AuthorityAuthorizationManager.hasAuthority("READ"))
+				.add(path.matcher(HttpMethod.GET, "/actuator/**"), AuthorityAuthorizationManager.hasRole("ADMIN"))
+				.add(request -> true, denyAll)
+				.build();
+	}
+
+	// Petición suelta para evaluar las reglas anteriores sin pasar por MockMvc
+	private static MockHttpServletRequest servletRequest(String method, String path) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+		request.setServletPath(path);
+		return request;
+	}
+}
@@ -0,0 +1,72 @@
+package com.app.config.datasource;
+
+import com.app.entities.PermissionEntity;
+import com.app.entities.UserEntity;
+import com.app.repositories.PermissionEntityRepository;
+import com.app.repositories.RoleEntityRepository;
+import com.app.repositories.UserEntityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Arranca sobre tablas que ya tienen filas con ids IDENTITY: el seed de RBAC inserta permisos, roles
+// y usuarios al arrancar, y esos INSERT no deben chocar con los ids existentes
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:identitydb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=update",
+		"spring.sql.init.mode=always",
+		"spring.sql.init.schema-locations=classpath:db/identity-schema.sql"
+})
+@ActiveProfiles("test")
+class IdGeneratorInitializerTest {
+
+	@Autowired
+	private PermissionEntityRepository permissionRepository;
+
+	@Autowired
+	private RoleEntityRepository roleRepository;
+
+	@Autowired
+	private UserEntityRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void seedInsertsAfterExistingIds() {
+		// Las filas anteriores siguen con sus ids y el seed quedó aplicado con ids nuevos
+		assertThat(userRepository.findUserEntityByUsername("legacy-1").orElseThrow().getId()).isEqualTo(1L);
+		assertThat(userRepository.findUserEntityByUsername("Samuel").orElseThrow().getId()).isGreaterThan(2L);
+		assertThat(permissionRepository.findAll())
+				.filteredOn(permission -> permission.getId() <= 3)
+				.extracting(PermissionEntity::getName)
+				.containsExactlyInAnyOrder("CREATE", "READ", "AUDIT");
+		assertThat(permissionRepository.findAll()).extracting(PermissionEntity::getName).contains("REFACTOR");
+		assertThat(roleRepository.findAll()).hasSize(4);
+
+		Long usersNextVal = jdbcTemplate.queryForObject(
+				"select next_val from id_generators where sequence_name = 'users'", Long.class);
+		assertThat(usersNextVal).isGreaterThanOrEqualTo(2L + 50);
+	}
+
+	@Test
+	void newRowsDoNotReuseIdentityIds() {
+		PermissionEntity permission = permissionRepository.save(PermissionEntity.builder().name("EXPORT").build());
+		UserEntity user = userRepository.save(UserEntity.builder()
+				.username("after-migration")
+				.password("x")
+				.isEnabled(true)
+				.accountNoExpired(true)
+				.accountNoLocked(true)
+				.credentialNoExpired(true)
+				.build());
+
+		assertThat(permission.getId()).isGreaterThan(3L);
+		assertThat(user.getId()).isGreaterThan(2L);
+	}
+
+}
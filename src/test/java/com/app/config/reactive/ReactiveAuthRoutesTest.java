@@ -0,0 +1,54 @@
+package com.app.config.reactive;
+
+import com.app.controllers.dto.AuthResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Alta y login por las rutas de WebFlux: sin open-in-view, cada llamada a UserDetailService
+// corre en el scheduler acotado y tiene que abrir su propia transacción
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reactivedb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class ReactiveAuthRoutesTest {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Test
+	void signUpThenLogIn() {
+		AuthResponse created = webTestClient.post().uri("/auth/sign-up")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"username\":\"reactive-user\",\"password\":\"secret\",\"roleRequest\":{\"roleListName\":[\"USER\"]}}")
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(AuthResponse.class)
+				.returnResult().getResponseBody();
+		assertThat(created).isNotNull();
+		assertThat(created.jwt()).isNotBlank();
+
+		AuthResponse loggedIn = webTestClient.post().uri("/auth/log-in")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"username\":\"reactive-user\",\"password\":\"secret\"}")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(AuthResponse.class)
+				.returnResult().getResponseBody();
+		assertThat(loggedIn).isNotNull();
+		assertThat(loggedIn.jwt()).isNotBlank();
+
+		// El token del login sirve en la cadena reactiva
+		webTestClient.post().uri("/auth/logout")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + loggedIn.jwt())
+				.exchange()
+				.expectStatus().isOk();
+	}
+
+}
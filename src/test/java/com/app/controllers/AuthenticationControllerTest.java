@@ -0,0 +1,42 @@
+package com.app.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sin open-in-view, como en el perfil prod: el alta no puede depender de una sesión abierta por la petición
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:signupdb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.jpa.open-in-view=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthenticationControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void signUpAndLogInWithoutOpenInView() throws Exception {
+		mockMvc.perform(post("/auth/sign-up")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"prod-user\",\"password\":\"secret\",\"roleRequest\":{\"roleListName\":[\"USER\"]}}"))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.jwt").isNotEmpty());
+
+		mockMvc.perform(post("/auth/log-in")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"prod-user\",\"password\":\"secret\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.jwt").isNotEmpty());
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.app.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RbacSeederTest {
+
+	@Autowired
+	private RbacSeeder rbacSeeder;
+
+	@Test
+	void seedIsIdempotent() {
+		// El seed ya se aplicó al arrancar el contexto: aplicarlo otra vez no cambia nada
+		assertThat(rbacSeeder.seed()).isZero();
+	}
+
+}
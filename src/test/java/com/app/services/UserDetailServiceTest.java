@@ -0,0 +1,68 @@
+package com.app.services;
+
+import com.app.controllers.dto.AuthCreateRoleRequest;
+import com.app.controllers.dto.AuthCreateUserRequest;
+import com.app.controllers.dto.AuthRefreshRequest;
+import com.app.controllers.dto.AuthResponse;
+import com.app.utils.JwtUtils;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserDetailServiceTest {
+
+	@Autowired
+	private UserDetailService userDetailService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	@Test
+	void loadUserByUsernameRunsASingleStatement() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		UserDetails user = userDetailService.loadUserByUsername("Samuel");
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(user.getAuthorities())
+				.extracting(GrantedAuthority::getAuthority)
+				.containsExactlyInAnyOrder("ROLE_INVITED", "ROLE_DEVELOPER",
+						"CREATE", "READ", "UPDATE", "DELETE", "REFACTOR");
+	}
+
+	@Test
+	void logoutRevokesTheRefreshTokenFamily() {
+		AuthResponse created = userDetailService.createUser(new AuthCreateUserRequest(
+				"logout-user", "secret", new AuthCreateRoleRequest(List.of("USER"))));
+
+		// El refresh token sirve mientras la sesión está abierta
+		AuthResponse refreshed = userDetailService.refreshToken(new AuthRefreshRequest(created.refreshToken()));
+
+		Authentication authentication = jwtUtils.authenticateToken(refreshed.jwt());
+		assertThat(userDetailService.logoutUser(authentication).status()).isTrue();
+
+		// Después del logout ningún refresh token de ese login emite tokens nuevos
+		assertThatThrownBy(() -> userDetailService.refreshToken(new AuthRefreshRequest(refreshed.refreshToken())))
+				.isInstanceOf(BadCredentialsException.class);
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.app.services;
+
+import com.app.controllers.dto.AuthBatchUserResponse;
+import com.app.repositories.UserEntityRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:provisioningdb;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class UserProvisioningServiceTest {
+
+	@Autowired
+	private UserProvisioningService provisioningService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@MockitoSpyBean
+	private UserEntityRepository userRepository;
+
+	@Test
+	void conflictingRowDoesNotHideTheOthers() throws Exception {
+		// La consulta previa no ve a "Samuel", como si otro proceso lo hubiera creado justo después:
+		// el INSERT del bloque falla y cada fila tiene que recibir su propio resultado
+		// (el spy de un repositorio de Spring Data no puede llamar al método real: las demás llamadas van por JDBC)
+		AtomicBoolean first = new AtomicBoolean(true);
+		doAnswer(invocation -> first.getAndSet(false) ? Set.of() : existingUsernames(invocation.getArgument(0)))
+				.when(userRepository).findExistingUsernames(any());
+
+		String body = """
+				{"username":"batch-1","password":"secret","roleRequest":{"roleListName":["USER"]}}
+				{"username":"Samuel","password":"secret","roleRequest":{"roleListName":["USER"]}}
+				{"username":"batch-2","password":"secret","roleRequest":{"roleListName":["USER"]}}
+				""";
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		provisioningService.provision(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+		List<AuthBatchUserResponse> results = new ArrayList<>();
+		for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+			results.add(objectMapper.readValue(line, AuthBatchUserResponse.class));
+		}
+
+		assertThat(results).extracting(AuthBatchUserResponse::username).containsExactly("batch-1", "Samuel", "batch-2");
+		assertThat(results).extracting(AuthBatchUserResponse::status).containsExactly(true, false, true);
+		assertThat(results.get(1).message()).isEqualTo("The user Samuel already exists");
+		assertThat(existingUsernames(Set.of("batch-1", "batch-2"))).containsExactlyInAnyOrder("batch-1", "batch-2");
+	}
+
+	private Set<String> existingUsernames(Collection<String> usernames) {
+		Set<String> existing = new HashSet<>();
+		for (String username : usernames) {
+			existing.addAll(jdbcTemplate.queryForList("select username from users where username = ?", String.class, username));
+		}
+		return existing;
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.app.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SigningKeyStoreTest {
+
+	private static final Duration PUBLISH_DELAY = Duration.ofSeconds(2);
+
+	@TempDir
+	Path directory;
+
+	private SigningKeyStore keyStore;
+
+	@AfterEach
+	void close() throws Exception {
+		if (keyStore != null) {
+			keyStore.close();
+		}
+	}
+
+	@Test
+	void newKeyIsPublishedBeforeItSigns() throws Exception {
+		// La llave actual lleva tiempo publicada; la nueva llegó recién
+		writeKey("2026-01", Instant.now().minus(Duration.ofHours(1)));
+		keyStore = newKeyStore("");
+		assertThat(keyStore.signingKey().kid()).isEqualTo("2026-01");
+
+		writeKey("2026-02", Instant.now());
+
+		// Primero aparece en el JWKS, mientras se sigue firmando con la anterior
+		await().atMost(Duration.ofSeconds(1)).until(() -> kids().contains("2026-02"));
+		assertThat(keyStore.signingKey().kid()).isEqualTo("2026-01");
+
+		// Después del publish-delay pasa a firmar, sin otro cambio en el directorio
+		await().atMost(PUBLISH_DELAY.plusSeconds(3))
+				.until(() -> keyStore.signingKey().kid().equals("2026-02"));
+	}
+
+	@Test
+	void keysPresentAtStartupCountFromTheirPublicKeyFile() throws Exception {
+		writeKey("2026-01", Instant.now().minus(Duration.ofHours(1)));
+		writeKey("2026-02", Instant.now());
+
+		keyStore = newKeyStore("");
+
+		assertThat(kids()).contains("2026-01", "2026-02");
+		assertThat(keyStore.signingKey().kid()).isEqualTo("2026-01");
+	}
+
+	@Test
+	void onlyKeySignsRightAway() throws Exception {
+		writeKey("2026-01", Instant.now());
+
+		keyStore = newKeyStore("");
+
+		assertThat(keyStore.signingKey().kid()).isEqualTo("2026-01");
+	}
+
+	@Test
+	void activeKidSkipsThePublishDelay() throws Exception {
+		writeKey("2026-01", Instant.now().minus(Duration.ofHours(1)));
+		writeKey("2026-02", Instant.now());
+
+		keyStore = newKeyStore("2026-02");
+
+		assertThat(keyStore.signingKey().kid()).isEqualTo("2026-02");
+	}
+
+	private SigningKeyStore newKeyStore(String activeKid) throws Exception {
+		SigningKeyStore store = new SigningKeyStore();
+		ReflectionTestUtils.setField(store, "directory", directory.toString());
+		ReflectionTestUtils.setField(store, "activeKid", activeKid);
+		ReflectionTestUtils.setField(store, "publishDelay", PUBLISH_DELAY);
+		ReflectionTestUtils.setField(store, "userGenerator", "AUTH0JWT-BACKEND");
+		store.init();
+		return store;
+	}
+
+	private List<String> kids() {
+		return keyStore.jwks().stream().map(jwk -> (String) jwk.get("kid")).toList();
+	}
+
+	// El .key primero y el .pub al final, como al copiar una llave nueva
+	private void writeKey(String kid, Instant published) throws Exception {
+		KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+		Files.writeString(directory.resolve(kid + ".key"), pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+		Path publicKey = directory.resolve(kid + ".pub");
+		Files.writeString(publicKey, pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+		Files.setLastModifiedTime(publicKey, FileTime.from(published));
+	}
+
+	private static String pem(String type, byte[] der) {
+		return "-----BEGIN " + type + "-----\n" + Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(der)
+				+ "\n-----END " + type + "-----\n";
+	}
+
+}
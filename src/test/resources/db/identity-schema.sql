@@ -0,0 +1,39 @@
+-- Esquema y datos como quedaban cuando los ids eran IDENTITY (AUTO_INCREMENT), antes de id_generators
+create table permissions (
+    id bigint auto_increment primary key,
+    name varchar(255) not null unique
+);
+
+create table roles (
+    id bigint auto_increment primary key,
+    role_name varchar(50)
+);
+
+create table roles_permissions (
+    role_id bigint not null,
+    permission_id bigint not null,
+    primary key (role_id, permission_id)
+);
+
+create table users (
+    id bigint auto_increment primary key,
+    username varchar(255) unique,
+    password varchar(255),
+    is_enabled boolean,
+    account_no_expired boolean,
+    account_no_locked boolean,
+    credential_no_expired boolean
+);
+
+create table users_roles (
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (user_id, role_id)
+);
+
+insert into permissions (name) values ('CREATE'), ('READ'), ('AUDIT');
+insert into roles (role_name) values ('ADMIN');
+insert into roles_permissions (role_id, permission_id) values (1, 1), (1, 2);
+insert into users (username, password, is_enabled, account_no_expired, account_no_locked, credential_no_expired)
+    values ('legacy-1', 'x', true, true, true, true), ('legacy-2', 'x', true, true, true, true);
+insert into users_roles (user_id, role_id) values (1, 1), (2, 1);